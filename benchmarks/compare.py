@@ -0,0 +1,37 @@
+#!/usr/bin/env python3
+"""Prints the score change of every benchmark between two JMH JSON result files."""
+import json
+import sys
+
+
+def load(path):
+    results = {}
+    with open(path) as handle:
+        for run in json.load(handle):
+            params = ",".join(f"{key}={value}" for key, value in sorted(run.get("params", {}).items()))
+            name = run["benchmark"].rsplit(".", 2)[-2:]
+            key = ".".join(name) + (f" [{params}]" if params else "")
+            metric = run["primaryMetric"]
+            alloc = run.get("secondaryMetrics", {}).get("gc.alloc.rate.norm", {}).get("score")
+            results[key] = (metric["score"], metric["scoreError"], metric["scoreUnit"], alloc)
+    return results
+
+
+def main():
+    if len(sys.argv) != 3:
+        sys.exit("usage: compare.py <baseline.json> <candidate.json>")
+    baseline, candidate = load(sys.argv[1]), load(sys.argv[2])
+    width = max((len(key) for key in candidate), default=20)
+    for key in sorted(candidate):
+        score, error, unit, alloc = candidate[key]
+        allocated = f"  {alloc:10.1f} B/op" if alloc is not None else ""
+        if key not in baseline:
+            print(f"{key:<{width}}  {score:12.3f} ± {error:.3f} {unit}{allocated}  (new)")
+            continue
+        old = baseline[key][0]
+        change = (score - old) / old * 100 if old else 0.0
+        print(f"{key:<{width}}  {old:12.3f} -> {score:12.3f} {unit}  {change:+7.1f}%{allocated}")
+
+
+if __name__ == "__main__":
+    main()
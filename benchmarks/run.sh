@@ -0,0 +1,12 @@
+#!/bin/sh
+# Builds the plugin and the benchmarks, then writes results/<commit>.json.
+# Runs with JMH's GC profiler, so every result also carries allocation per operation (gc.alloc.rate.norm).
+# Extra arguments go to JMH, e.g. ./run.sh Loot -p players=100
+set -e
+cd "$(dirname "$0")"
+(cd .. && mvn -B -q install -DskipTests)
+mvn -B -q package
+mkdir -p results
+commit=$(git rev-parse --short HEAD)
+java -jar target/benchmarks.jar -prof gc -rf json -rff "results/$commit.json" "$@"
+echo "Results written to results/$commit.json; compare with: python3 compare.py results/<old>.json results/$commit.json"
@@ -0,0 +1,13 @@
+#!/bin/sh
+# Builds the plugin and the benchmarks, then runs the load simulation; exits non-zero when a budget is exceeded.
+# Arguments go to LoadSimulation, e.g. ./simulate.sh --seed 7 --players 500 --script simulation/mass-elimination.txt
+# Add --runs 2 to play the seed twice and fail unless both runs end with the same outcome hash.
+set -e
+cd "$(dirname "$0")"
+(cd .. && mvn -B -q install -DskipTests)
+mvn -B -q package
+# Budgets measured on the reference machine (LoadSimulation --write-budgets) are checked in next to the scripts
+if [ -f simulation/budgets.txt ]; then
+    set -- --budgets simulation/budgets.txt "$@"
+fi
+java -cp target/benchmarks.jar com.senz.battleroyale.LoadSimulation "$@"
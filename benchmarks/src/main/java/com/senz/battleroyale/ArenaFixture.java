@@ -0,0 +1,91 @@
+package com.senz.battleroyale;
+
+import org.mockbukkit.mockbukkit.MockBukkit;
+import org.mockbukkit.mockbukkit.ServerMock;
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// A MockBukkit server with the plugin loaded and one arena filled with mock players
+final class ArenaFixture {
+
+    private static final int MAX_START_TICKS = 400;
+
+    final ServerMock server;
+    final BattleRoyalePlugin plugin;
+    final GameManager arena;
+    final List<PlayerMock> players;
+
+    private ArenaFixture(ServerMock server, BattleRoyalePlugin plugin, List<PlayerMock> players) {
+        this.server = server;
+        this.plugin = plugin;
+        this.arena = plugin.getArenaManager().getArenas().get(0);
+        this.players = players;
+    }
+
+    // Everyone queued in the lobby; the countdown never starts
+    static ArenaFixture lobby(int playerCount) {
+        return create(playerCount, Map.of("minPlayers", playerCount + 1));
+    }
+
+    // Everyone alive in a running round
+    static ArenaFixture running(int playerCount) {
+        ArenaFixture fixture = create(playerCount, Map.of(
+                "minPlayers", Math.max(2, playerCount),
+                "startCountdownSeconds", 0,
+                "teleports.timeoutSeconds", 1));
+        for (int tick = 0; tick < MAX_START_TICKS && fixture.arena.getState() != GameState.RUNNING; tick++) {
+            fixture.server.getScheduler().performOneTick();
+        }
+        if (fixture.arena.getState() != GameState.RUNNING) {
+            GameState state = fixture.arena.getState();
+            fixture.close();
+            throw new IllegalStateException("Arena did not reach RUNNING within " + MAX_START_TICKS + " ticks (state " + state + ")");
+        }
+        return fixture;
+    }
+
+    // Overrides are applied last, so callers can replace any of the defaults below
+    static ArenaFixture create(int playerCount, Map<String, Object> overrides) {
+        ServerMock server = MockBukkit.mock();
+        // Loaded but not yet enabled (MockBukkit.load would enable it with the shipped defaults), so the plugin starts
+        // exactly once with the benchmark settings: no background world generation, files or timers that add noise
+        BattleRoyalePlugin plugin = (BattleRoyalePlugin) server.getPluginManager().loadPlugin(BattleRoyalePlugin.class, new Object[0]);
+        Map<String, Object> settings = new HashMap<>();
+        settings.put("arenas.count", 1);
+        settings.put("arenas.maxPlayers", playerCount);
+        settings.put("expectedPlayers", playerCount);
+        settings.put("worldPool.size", 0);
+        settings.put("chunkWarmup.enabled", false);
+        settings.put("replay.enabled", false);
+        settings.put("metrics.dumpIntervalSeconds", 0);
+        settings.put("teleports.perTick", playerCount);
+        settings.putAll(overrides);
+        settings.forEach(plugin.getConfig()::set);
+        // Written to the data folder's config.yml, so saveDefaultConfig keeps it and /br reload reads the same values
+        plugin.saveConfig();
+        server.getPluginManager().enablePlugin(plugin);
+
+        List<PlayerMock> players = new ArrayList<>(playerCount);
+        for (int i = 0; i < playerCount; i++) {
+            players.add(server.addPlayer("player" + i));
+        }
+        return new ArenaFixture(server, plugin, players);
+    }
+
+    // Mock players keep every chat line they receive; drop them between iterations so memory stays flat
+    void clearMessages() {
+        for (PlayerMock player : players) {
+            while (player.nextMessage() != null) {
+                // drain
+            }
+        }
+    }
+
+    void close() {
+        MockBukkit.unmock();
+    }
+}
@@ -0,0 +1,57 @@
+package com.senz.battleroyale;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// Main-thread cost of publishing to the plugin's own event bus, drained by the handlers it registers at enable (stats;
+// the fixture turns replays off). A second bus would add consumer threads competing with this one.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark {
+
+    private ArenaFixture fixture;
+    private GameEventBus bus;
+    private UUID subject;
+    private UUID other;
+    private float coordinate;
+
+    @Setup
+    public void setUp() {
+        fixture = ArenaFixture.lobby(1);
+        bus = fixture.plugin.getEventBus();
+        subject = UUID.randomUUID();
+        other = UUID.randomUUID();
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public void publishDeath() {
+        bus.publish(GameEventType.PLAYER_DEATH, 0, subject, other, 0);
+    }
+
+    @Benchmark
+    public void publishPosition() {
+        coordinate += 0.5f;
+        bus.publish(GameEventType.POSITION, 0, subject, null, 0, coordinate, 64f, coordinate);
+    }
+}
@@ -0,0 +1,93 @@
+package com.senz.battleroyale;
+
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Join/quit in a full lobby, and eliminating a whole round through handleDeath and the winner check.
+// Single-shot batches, because every join and death broadcasts to the arena and mock players keep those messages.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class GameManagerBenchmark {
+
+    private static final int JOINS_PER_SHOT = 100;
+
+    @State(Scope.Benchmark)
+    public static class Lobby {
+        @Param({"10", "100", "1000"})
+        public int players;
+
+        ArenaFixture fixture;
+        PlayerMock player;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            fixture = ArenaFixture.lobby(players);
+            player = fixture.players.get(0);
+        }
+
+        @Setup(Level.Iteration)
+        public void drain() {
+            fixture.clearMessages();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            fixture.close();
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Round {
+        @Param({"10", "100", "1000"})
+        public int players;
+
+        ArenaFixture fixture;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            fixture = ArenaFixture.running(players);
+        }
+
+        @TearDown(Level.Iteration)
+        public void tearDown() {
+            fixture.close();
+        }
+    }
+
+    @Benchmark
+    public void quitAndRejoin(Lobby lobby) {
+        GameManager arena = lobby.fixture.arena;
+        for (int i = 0; i < JOINS_PER_SHOT; i++) {
+            arena.handleQuit(lobby.player);
+            arena.handleJoin(lobby.player);
+        }
+    }
+
+    // Every player but the last dies to the last one; the final death ends the round
+    @Benchmark
+    public GameState eliminateAll(Round round) {
+        GameManager arena = round.fixture.arena;
+        PlayerMock survivor = round.fixture.players.get(round.players - 1);
+        for (int i = 0; i < round.players - 1; i++) {
+            arena.handleDeath(round.fixture.players.get(i), survivor);
+        }
+        return arena.getState();
+    }
+}
@@ -0,0 +1,416 @@
+package com.senz.battleroyale;
+
+import org.mockbukkit.mockbukkit.entity.PlayerMock;
+import org.mockbukkit.mockbukkit.scheduler.BukkitSchedulerMock;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+// Plays whole rounds on a mock server with synthetic players joining, dying, quitting and reconnecting,
+// and exits with status 1 when tick time, allocation or scheduler backlog go over budget.
+// The seed drives both the simulated players and the plugin (randomSeed, inline spawn planning), so a seed should play
+// out the same rounds; --runs 2 plays it twice and fails if the outcome hashes differ.
+// Budgets come from --budgets <file> (same names as the options, one "name value" per line; options on the command
+// line win); --write-budgets <file> records the worst values measured over all runs, with headroom, in that format.
+// java -cp target/benchmarks.jar com.senz.battleroyale.LoadSimulation --seed 7 --players 300 [--script churn.txt]
+public final class LoadSimulation {
+
+    private static final int TICKS_PER_SECOND = 20;
+
+    private final Settings settings;
+    private final Random random;
+    private final Deque<ScriptStep> script;
+    private final ArenaFixture fixture;
+    private final BukkitSchedulerMock scheduler;
+    private final com.sun.management.ThreadMXBean threads;
+    private final MetricsRegistry.Histogram tickTime;
+    private final List<PlayerMock> online = new ArrayList<>();
+    private final List<PlayerMock> offline = new ArrayList<>();
+    private final Map<GameManager, GameState> lastStates = new HashMap<>();
+
+    private int created;
+    private long joins;
+    private long quits;
+    private long reconnects;
+    private long deaths;
+    private long missedKills;
+    private int roundsStarted;
+    private int roundsFinished;
+    private long allocatedBytes;
+    private long maxAllocatedBytes;
+    private int maxPendingTasks;
+    private long timeline = 1;
+    // Deaths, round starts and round results with their winner; equal for two runs of the same seed
+    private long outcome = 1;
+
+    private LoadSimulation(Settings settings, List<ScriptStep> script) {
+        this.settings = settings;
+        this.random = new Random(settings.seed());
+        this.script = new ArrayDeque<>(script);
+        this.fixture = ArenaFixture.create(0, Map.ofEntries(
+                Map.entry("arenas.count", settings.arenas()),
+                Map.entry("arenas.maxPlayers", settings.players()),
+                Map.entry("expectedPlayers", settings.players()),
+                Map.entry("minPlayers", settings.minPlayers()),
+                Map.entry("startCountdownSeconds", 10),
+                Map.entry("maxGameTime", settings.roundSeconds()),
+                Map.entry("teleports.perTick", 8),
+                Map.entry("teleports.timeoutSeconds", 5),
+                Map.entry("replay.enabled", true),
+                Map.entry("randomSeed", settings.seed()),
+                Map.entry("spawns.asyncPlanning", false)));
+        this.scheduler = fixture.server.getScheduler();
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        this.tickTime = fixture.plugin.getMetrics().histogram("br_simulation_tick_seconds", "Whole simulated server tick");
+    }
+
+    public static void main(String[] args) throws IOException {
+        Settings settings = Settings.parse(args);
+        List<ScriptStep> script = settings.script() == null ? List.of() : ScriptStep.load(settings.script());
+        List<String> violations = new ArrayList<>();
+        List<LoadSimulation> runs = new ArrayList<>();
+        long firstOutcome = 0;
+        for (int run = 1; run <= settings.runs(); run++) {
+            LoadSimulation simulation = new LoadSimulation(settings, script);
+            runs.add(simulation);
+            try {
+                simulation.run();
+                simulation.report();
+                violations.addAll(simulation.checkBudgets());
+            } finally {
+                simulation.fixture.close();
+            }
+            if (run == 1) {
+                firstOutcome = simulation.outcome;
+            } else if (simulation.outcome != firstOutcome) {
+                violations.add("run " + run + " outcome " + Long.toHexString(simulation.outcome)
+                        + " differs from run 1 (" + Long.toHexString(firstOutcome) + ") with the same seed");
+            }
+        }
+
+        if (settings.writeBudgets() != null) {
+            writeBudgets(settings, runs, args);
+        }
+        for (String violation : violations) {
+            System.out.println("OVER BUDGET: " + violation);
+        }
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+    private void run() {
+        for (int tick = 0; tick < settings.ticks() && roundsFinished < settings.rounds(); tick++) {
+            drive(tick);
+
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            scheduler.performOneTick();
+            tickTime.recordSince(start);
+            long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            allocatedBytes += allocated;
+            maxAllocatedBytes = Math.max(maxAllocatedBytes, allocated);
+            maxPendingTasks = Math.max(maxPendingTasks, scheduler.getPendingTasks().size() + scheduler.getNumberOfQueuedAsyncTasks());
+
+            trackRounds(tick);
+        }
+    }
+
+    // Every tick draws the same amount of randomness whatever the arenas are doing, so a seed always produces the same timeline
+    private void drive(int tick) {
+        while (!script.isEmpty() && script.peekFirst().tick() <= tick) {
+            ScriptStep step = script.pollFirst();
+            for (int i = 0; i < step.count(); i++) {
+                apply(tick, step.action());
+            }
+        }
+
+        int joinsDue = occurrences(settings.joinsPerSecond());
+        int quitsDue = occurrences(settings.quitsPerSecond());
+        int killsDue = occurrences(settings.killsPerSecond());
+        for (int i = 0; i < joinsDue; i++) {
+            apply(tick, random.nextInt(3) == 0 ? Action.RECONNECT : Action.JOIN);
+        }
+        for (int i = 0; i < quitsDue; i++) {
+            apply(tick, Action.QUIT);
+        }
+        for (int i = 0; i < killsDue; i++) {
+            apply(tick, Action.KILL);
+        }
+    }
+
+    private int occurrences(double perSecond) {
+        double perTick = perSecond / TICKS_PER_SECOND;
+        int whole = (int) perTick;
+        return whole + (random.nextDouble() < perTick - whole ? 1 : 0);
+    }
+
+    private void apply(int tick, Action action) {
+        int pick = random.nextInt(Integer.MAX_VALUE);
+        int second = random.nextInt(Integer.MAX_VALUE);
+        timeline = timeline * 31 + ((long) tick << 8) + action.ordinal() * 7919L + pick;
+
+        switch (action) {
+            case JOIN -> {
+                if (online.size() < settings.players()) {
+                    online.add(addPlayer("sim" + created++));
+                    joins++;
+                }
+            }
+            case RECONNECT -> {
+                if (offline.isEmpty() || online.size() >= settings.players()) {
+                    apply(tick, Action.JOIN);
+                    return;
+                }
+                PlayerMock player = offline.remove(pick % offline.size());
+                player.reconnect();
+                online.add(player);
+                reconnects++;
+            }
+            case QUIT -> {
+                if (!online.isEmpty()) {
+                    PlayerMock player = online.remove(pick % online.size());
+                    player.disconnect();
+                    offline.add(player);
+                    quits++;
+                }
+            }
+            case KILL -> kill(tick, pick, second);
+        }
+    }
+
+    // Ids come from the name rather than the mock server, so the plugin's maps see the same players on every run
+    private PlayerMock addPlayer(String name) {
+        PlayerMock player = new PlayerMock(fixture.server, name,
+                UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8)));
+        fixture.server.addPlayer(player);
+        return player;
+    }
+
+    // Kills land on a random online player; the ones not alive in a running round are counted as misses
+    private void kill(int tick, int pick, int second) {
+        if (online.isEmpty()) {
+            return;
+        }
+        ArenaManager arenas = fixture.plugin.getArenaManager();
+        PlayerMock victim = online.get(pick % online.size());
+        if (!isAlive(arenas, victim)) {
+            missedKills++;
+            return;
+        }
+        // Every fourth death is environmental (border, fall), the rest credit another online player
+        PlayerMock killer = second % 4 == 0 ? null : online.get(second % online.size());
+        killer = killer == victim ? null : killer;
+        arenas.handleDeath(victim, killer);
+        deaths++;
+        outcome = mix(mix(mix(outcome, tick), victim.getUniqueId()), killer != null ? killer.getUniqueId() : null);
+    }
+
+    private boolean isAlive(ArenaManager arenas, PlayerMock player) {
+        GameManager arena = arenas.getArena(player.getUniqueId());
+        if (arena == null || arena.getState() != GameState.RUNNING) {
+            return false;
+        }
+        int index = arena.getPlayers().indexOf(player.getUniqueId());
+        return index >= 0 && arena.getPlayers().isAlive(index);
+    }
+
+    private void trackRounds(int tick) {
+        for (GameManager arena : fixture.plugin.getArenaManager().getArenas()) {
+            GameState state = arena.getState();
+            GameState last = lastStates.put(arena, state);
+            if (state == GameState.RUNNING && last != GameState.RUNNING) {
+                roundsStarted++;
+                outcome = mix(mix(mix(outcome, tick), arena.getArenaId()), arena.getPlayers().getAliveCount());
+            } else if (state != GameState.RUNNING && last == GameState.RUNNING) {
+                roundsFinished++;
+                // Players stay alive through ENDING, so a single survivor here is the winner
+                PlayerRegistry players = arena.getPlayers();
+                UUID winner = players.getAliveCount() == 1 ? players.firstAlive() : null;
+                outcome = mix(mix(mix(outcome, tick), arena.getArenaId()), winner);
+            }
+        }
+    }
+
+    private static long mix(long hash, long value) {
+        return hash * 31 + value;
+    }
+
+    private static long mix(long hash, UUID playerId) {
+        return playerId == null ? mix(hash, -1L)
+                : mix(mix(hash, playerId.getMostSignificantBits()), playerId.getLeastSignificantBits());
+    }
+
+    private void report() {
+        long ticks = Math.max(1, tickTime.getCount());
+        System.out.println("seed " + settings.seed() + ", timeline " + Long.toHexString(timeline)
+                + ", outcome " + Long.toHexString(outcome) + ", " + ticks + " ticks");
+        System.out.println("rounds started " + roundsStarted + ", finished " + roundsFinished);
+        System.out.println("joins " + joins + ", reconnects " + reconnects + ", quits " + quits
+                + ", deaths " + deaths + " (" + missedKills + " kills missed)");
+        System.out.println(String.format(Locale.ROOT, "tick p50 %.3fms, p99 %.3fms, max %.3fms",
+                millis(tickTime.quantileNanos(0.5)), millis(tickTime.quantileNanos(0.99)), millis(tickTime.getMaxNanos())));
+        System.out.println(String.format(Locale.ROOT, "allocated %.1f KiB/tick on average, %.1f KiB max",
+                allocatedBytes / 1024.0 / ticks, maxAllocatedBytes / 1024.0));
+        System.out.println("scheduler backlog max " + maxPendingTasks + " tasks, " + scheduler.getPendingTasks().size() + " at the end");
+    }
+
+    private List<String> checkBudgets() {
+        List<String> violations = new ArrayList<>();
+        double p99 = millis(tickTime.quantileNanos(0.99));
+        if (p99 > settings.maxTickP99Millis()) {
+            violations.add(String.format(Locale.ROOT, "tick p99 %.3fms > %.3fms", p99, settings.maxTickP99Millis()));
+        }
+        double max = millis(tickTime.getMaxNanos());
+        if (max > settings.maxTickMillis()) {
+            violations.add(String.format(Locale.ROOT, "tick max %.3fms > %.3fms", max, settings.maxTickMillis()));
+        }
+        double kibPerTick = allocatedBytes / 1024.0 / Math.max(1, tickTime.getCount());
+        if (kibPerTick > settings.maxAllocatedKiBPerTick()) {
+            violations.add(String.format(Locale.ROOT, "allocation %.1f KiB/tick > %.1f", kibPerTick, settings.maxAllocatedKiBPerTick()));
+        }
+        if (maxPendingTasks > settings.maxPendingTasks()) {
+            violations.add("scheduler backlog " + maxPendingTasks + " > " + settings.maxPendingTasks());
+        }
+        if (roundsFinished < settings.rounds()) {
+            violations.add("only " + roundsFinished + " of " + settings.rounds() + " rounds finished in " + settings.ticks() + " ticks");
+        }
+        return violations;
+    }
+
+    // Worst run plus headroom: tick times vary between machines and runs, allocation and backlog much less
+    private static void writeBudgets(Settings settings, List<LoadSimulation> runs, String[] args) throws IOException {
+        double p99 = 0;
+        double max = 0;
+        double kibPerTick = 0;
+        int pending = 0;
+        for (LoadSimulation run : runs) {
+            p99 = Math.max(p99, millis(run.tickTime.quantileNanos(0.99)));
+            max = Math.max(max, millis(run.tickTime.getMaxNanos()));
+            kibPerTick = Math.max(kibPerTick, run.allocatedBytes / 1024.0 / Math.max(1, run.tickTime.getCount()));
+            pending = Math.max(pending, run.maxPendingTasks);
+        }
+        List<String> lines = List.of(
+                "# Measured with: LoadSimulation " + String.join(" ", args),
+                "# worst of " + runs.size() + " runs: tick p99 " + format(p99) + "ms, max " + format(max) + "ms, "
+                        + format(kibPerTick) + " KiB/tick, backlog " + pending + " tasks",
+                "max-tick-p99-ms " + format(p99 * 1.5),
+                "max-tick-ms " + format(max * 1.5),
+                "max-alloc-kib-per-tick " + format(kibPerTick * 1.25),
+                "max-pending-tasks " + (int) Math.ceil(pending * 1.25));
+        Files.write(settings.writeBudgets(), lines, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+        System.out.println("Budgets written to " + settings.writeBudgets());
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    enum Action {
+        JOIN,
+        RECONNECT,
+        QUIT,
+        KILL
+    }
+
+    // One line per step: "<second> <join|reconnect|quit|kill> <count>", # starts a comment
+    record ScriptStep(int tick, Action action, int count) {
+        static List<ScriptStep> load(Path path) throws IOException {
+            List<ScriptStep> steps = new ArrayList<>();
+            for (String line : Files.readAllLines(path)) {
+                int comment = line.indexOf('#');
+                String trimmed = (comment >= 0 ? line.substring(0, comment) : line).trim();
+                if (trimmed.isEmpty()) {
+                    continue;
+                }
+                String[] parts = trimmed.split("\\s+");
+                if (parts.length != 3) {
+                    throw new IllegalStateException("Bad script line: " + line);
+                }
+                steps.add(new ScriptStep(Integer.parseInt(parts[0]) * TICKS_PER_SECOND,
+                        Action.valueOf(parts[1].toUpperCase(Locale.ROOT)), Integer.parseInt(parts[2])));
+            }
+            steps.sort(Comparator.comparingInt(ScriptStep::tick));
+            return steps;
+        }
+    }
+
+    record Settings(long seed, int players, int arenas, int minPlayers, int roundSeconds, int rounds, int ticks,
+                    double joinsPerSecond, double quitsPerSecond, double killsPerSecond, Path script,
+                    double maxTickP99Millis, double maxTickMillis, double maxAllocatedKiBPerTick, int maxPendingTasks,
+                    int runs, Path writeBudgets) {
+
+        private static final List<String> BUDGETS = List.of("max-tick-p99-ms", "max-tick-ms", "max-alloc-kib-per-tick",
+                "max-pending-tasks");
+
+        static Settings parse(String[] args) throws IOException {
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < args.length; i += 2) {
+                if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                    throw new IllegalStateException("Expected --name value pairs, got " + args[i]);
+                }
+                values.put(args[i].substring(2), args[i + 1]);
+            }
+            String budgets = values.remove("budgets");
+            if (budgets != null) {
+                for (String line : Files.readAllLines(Path.of(budgets))) {
+                    String trimmed = line.trim();
+                    if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                        continue;
+                    }
+                    String[] parts = trimmed.split("\\s+");
+                    if (parts.length != 2 || !BUDGETS.contains(parts[0])) {
+                        throw new IllegalStateException("Bad budget line in " + budgets + ": " + line);
+                    }
+                    values.putIfAbsent(parts[0], parts[1]);
+                }
+            }
+            int players = Integer.parseInt(values.getOrDefault("players", "300"));
+            Settings settings = new Settings(
+                    Long.parseLong(values.getOrDefault("seed", "1")),
+                    players,
+                    Integer.parseInt(values.getOrDefault("arenas", "1")),
+                    Integer.parseInt(values.getOrDefault("min-players", String.valueOf(Math.max(2, players / 2)))),
+                    Integer.parseInt(values.getOrDefault("round-seconds", "300")),
+                    Integer.parseInt(values.getOrDefault("rounds", "3")),
+                    Integer.parseInt(values.getOrDefault("ticks", "72000")),
+                    Double.parseDouble(values.getOrDefault("joins-per-second", "20")),
+                    Double.parseDouble(values.getOrDefault("quits-per-second", "0.5")),
+                    Double.parseDouble(values.getOrDefault("kills-per-second", "4")),
+                    values.containsKey("script") ? Path.of(values.get("script")) : null,
+                    Double.parseDouble(values.getOrDefault("max-tick-p99-ms", "10")),
+                    Double.parseDouble(values.getOrDefault("max-tick-ms", "50")),
+                    Double.parseDouble(values.getOrDefault("max-alloc-kib-per-tick", "512")),
+                    Integer.parseInt(values.getOrDefault("max-pending-tasks", "200")),
+                    Math.max(1, Integer.parseInt(values.getOrDefault("runs", "1"))),
+                    values.containsKey("write-budgets") ? Path.of(values.get("write-budgets")) : null);
+            values.keySet().removeAll(List.of("seed", "players", "arenas", "min-players", "round-seconds", "rounds", "ticks",
+                    "joins-per-second", "quits-per-second", "kills-per-second", "script",
+                    "max-tick-p99-ms", "max-tick-ms", "max-alloc-kib-per-tick", "max-pending-tasks", "runs", "write-budgets"));
+            if (!values.isEmpty()) {
+                throw new IllegalStateException("Unknown options: " + values.keySet());
+            }
+            if (settings.seed() == 0) {
+                // randomSeed 0 tells the plugin to pick its own seed, which would make the run unrepeatable
+                throw new IllegalStateException("--seed must not be 0");
+            }
+            return settings;
+        }
+    }
+}
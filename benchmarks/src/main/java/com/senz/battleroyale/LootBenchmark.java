@@ -0,0 +1,105 @@
+package com.senz.battleroyale;
+
+import org.bukkit.inventory.ItemStack;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Loot rolling: the alias table against the old linear kit scan, plus variant baking (enchantments) and copying
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LootBenchmark {
+
+    private ArenaFixture fixture;
+    private LootTable table;
+    private LootVariantCache variants;
+    private List<LootManager.LootKit> kits;
+    private Map<LootManager.LootRarity, Integer> rarityWeights;
+    private Random random;
+
+    @Setup
+    public void setUp() {
+        fixture = ArenaFixture.lobby(1);
+        LootManager lootManager = fixture.arena.getLootManager();
+        table = lootManager.getTable();
+        variants = lootManager.getVariantCache();
+        kits = lootManager.getKits();
+        rarityWeights = new EnumMap<>(LootManager.LootRarity.class);
+        rarityWeights.put(LootManager.LootRarity.COMMON, 60);
+        rarityWeights.put(LootManager.LootRarity.UNCOMMON, 30);
+        rarityWeights.put(LootManager.LootRarity.RARE, 10);
+        random = new Random(42);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    // Both samplers return the chosen item, so the two benchmarks do the same amount of work per call
+    @Benchmark
+    public LootManager.LootItem aliasSample() {
+        return table.item(table.sampleIndex(random));
+    }
+
+    // The selection giveLoot used before the alias table, kept exactly as it was: a weighted kit scan, then one item
+    // picked uniformly from the kit
+    @Benchmark
+    public LootManager.LootItem linearSample() {
+        LootManager.LootKit kit = selectRandomKit();
+        return kit.items().get(random.nextInt(kit.items().size()));
+    }
+
+    private LootManager.LootKit selectRandomKit() {
+        int totalWeight = 0;
+        for (LootManager.LootKit kit : kits) {
+            totalWeight += Math.max(1, rarityWeights.getOrDefault(kit.rarity(), 1));
+        }
+        int roll = random.nextInt(Math.max(1, totalWeight));
+        for (LootManager.LootKit kit : kits) {
+            roll -= Math.max(1, rarityWeights.getOrDefault(kit.rarity(), 1));
+            if (roll < 0) {
+                return kit;
+            }
+        }
+        return kits.get(random.nextInt(kits.size()));
+    }
+
+    // Everything giveLoot does before handing the stacks to the delivery queue
+    @Benchmark
+    public ItemStack[] rollDrop() {
+        ItemStack[] items = new ItemStack[table.rollItemCount(random)];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = variants.copy(table.sampleIndex(random), random);
+        }
+        return items;
+    }
+
+    // Applying random enchantments to every variant of every item, as happens between rounds
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 5)
+    @Measurement(iterations = 20)
+    public void bakeVariants() {
+        variants.bake(table);
+    }
+}
@@ -0,0 +1,75 @@
+package com.senz.battleroyale;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Rendering every sidebar in an arena: first render (scoreboard and teams created) and steady-state diffing
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScoreboardBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int players;
+
+    private ArenaFixture fixture;
+    private ScoreboardHandler scoreboards;
+    private boolean killed;
+
+    @Setup
+    public void setUp() {
+        fixture = ArenaFixture.lobby(players);
+        scoreboards = fixture.arena.getScoreboardHandler();
+        scoreboards.markAllDirty();
+        scoreboards.flush(players);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public int createSidebars() {
+        scoreboards.stop();
+        scoreboards.markAllDirty();
+        return scoreboards.flush(players);
+    }
+
+    @Benchmark
+    public int refreshUnchanged() {
+        scoreboards.markAllDirty();
+        return scoreboards.flush(players);
+    }
+
+    // Every player's kill line changes on each refresh, flipping between 0 and 1 so the line cache stays at two entries
+    @Benchmark
+    public int refreshWithKillChange() {
+        PlayerRegistry registry = fixture.arena.getPlayers();
+        for (int index = registry.nextPlayer(0); index >= 0; index = registry.nextPlayer(index + 1)) {
+            if (killed) {
+                registry.resetKills(index);
+            } else {
+                registry.addKill(index);
+            }
+        }
+        killed = !killed;
+        scoreboards.markAllDirty();
+        return scoreboards.flush(players);
+    }
+}
@@ -0,0 +1,93 @@
+package com.senz.battleroyale;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One arena's outgoing chat. Everything broadcast during a tick goes to the sender thread as one batch after it, and
+// eliminations wait for a short window so a border or a fight wiping out many players at once becomes a single line.
+// Lines for a single player share the batch, so they never overtake a broadcast made before them.
+class ArenaChat {
+
+    private final BattleRoyalePlugin plugin;
+    private final PlayerRegistry players;
+    private final List<MessageService.Line> pending = new ArrayList<>();
+    // Told while eliminations were held; released right after them so a victim reads their own elimination first
+    private final List<MessageService.Line> heldLines = new ArrayList<>();
+    private final List<Component> eliminationLines = new ArrayList<>();
+    private final List<String> eliminatedNames = new ArrayList<>();
+    private int eliminationDeadline;
+
+    ArenaChat(BattleRoyalePlugin plugin, PlayerRegistry players) {
+        this.plugin = plugin;
+        this.players = players;
+    }
+
+    void broadcast(Component message) {
+        // Held eliminations go first so a winner is never announced before the last death
+        releaseEliminations();
+        pending.add(new MessageService.Line(null, message));
+    }
+
+    void tell(Player player, Component message) {
+        MessageService.Line line = new MessageService.Line(player, message);
+        if (eliminatedNames.isEmpty()) {
+            pending.add(line);
+        } else {
+            heldLines.add(line);
+        }
+    }
+
+    void eliminated(String victim, String killer) {
+        if (eliminatedNames.isEmpty()) {
+            eliminationDeadline = Bukkit.getCurrentTick() + plugin.getSettings().chat().eliminationWindowTicks();
+        }
+        eliminatedNames.add(victim);
+        eliminationLines.add(killer != null ? Messages.eliminatedBy(victim, killer) : Messages.fallen(victim));
+    }
+
+    // Called by ArenaManager once the arena's work for the tick is done
+    void flush() {
+        if (!eliminatedNames.isEmpty() && Bukkit.getCurrentTick() >= eliminationDeadline) {
+            releaseEliminations();
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Player> recipients = new ArrayList<>();
+        for (int index = players.nextPlayer(0); index >= 0; index = players.nextPlayer(index + 1)) {
+            Player player = Bukkit.getPlayer(players.playerAt(index));
+            if (player != null) {
+                recipients.add(player);
+            }
+        }
+        plugin.getMessageService().send(recipients, List.copyOf(pending));
+        pending.clear();
+    }
+
+    // Shutdown: everything still held goes out with one last batch instead of being dropped
+    void drain() {
+        releaseEliminations();
+        flush();
+    }
+
+    private void releaseEliminations() {
+        if (eliminatedNames.isEmpty()) {
+            return;
+        }
+        if (eliminatedNames.size() <= plugin.getSettings().chat().maxEliminationLines()) {
+            for (Component line : eliminationLines) {
+                pending.add(new MessageService.Line(null, line));
+            }
+        } else {
+            pending.add(new MessageService.Line(null, Messages.eliminations(eliminatedNames)));
+        }
+        pending.addAll(heldLines);
+        heldLines.clear();
+        eliminationLines.clear();
+        eliminatedNames.clear();
+    }
+}
@@ -0,0 +1,210 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerPortalEvent;
+import org.bukkit.event.world.PortalCreateEvent;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+
+// Hosts every arena, routes players to them and drives all arenas from one shared tick task
+public class ArenaManager {
+
+    private final BattleRoyalePlugin plugin;
+    private final List<GameManager> arenas = new ArrayList<>();
+    private final Map<UUID, GameManager> playerArenas = new HashMap<>();
+    private final Deque<UUID> matchmakingQueue = new ArrayDeque<>();
+    private final MetricsRegistry.Histogram tickTime;
+    private final MetricsRegistry.Histogram arenaTickTime;
+    private final MetricsRegistry.Histogram secondTickTime;
+    private final MetricsRegistry.Histogram scoreboardTime;
+    private final MetricsRegistry.Histogram matchmakingTime;
+
+    private BukkitTask tickTask;
+    private long tick;
+    private int renderCursor;
+
+    public ArenaManager(BattleRoyalePlugin plugin, WorldManager worldManager, WorldPool worldPool) {
+        this.plugin = plugin;
+        MetricsRegistry metrics = plugin.getMetrics();
+        this.tickTime = metrics.histogram("br_tick_seconds", "Plugin time per server tick, all phases");
+        this.arenaTickTime = metrics.histogram("br_tick_arenas_seconds", "Per-tick arena work: loot wheel, deliveries, teleports, warming, replay sampling");
+        this.secondTickTime = metrics.histogram("br_tick_second_seconds", "Once-a-second arena work: countdown, round timer, border");
+        this.scoreboardTime = metrics.histogram("br_tick_scoreboard_seconds", "Sidebar rendering per tick");
+        this.matchmakingTime = metrics.histogram("br_tick_matchmaking_seconds", "Matchmaking passes");
+        int count = plugin.getSettings().arenas().count();
+        for (int i = 0; i < count; i++) {
+            arenas.add(new GameManager(plugin, i, worldManager, worldPool));
+        }
+    }
+
+    public void start() {
+        tickTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                tick();
+            }
+        }.runTaskTimer(plugin, 1L, 1L);
+    }
+
+    public void shutdown() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        for (GameManager arena : arenas) {
+            arena.shutdown();
+        }
+        playerArenas.clear();
+        matchmakingQueue.clear();
+    }
+
+    public void handleJoin(Player player) {
+        matchmakingQueue.addLast(player.getUniqueId());
+        matchmake();
+        if (!playerArenas.containsKey(player.getUniqueId())) {
+            player.setGameMode(GameMode.ADVENTURE);
+            plugin.getMessageService().tell(player, Messages.ARENAS_BUSY);
+        }
+    }
+
+    public void handleQuit(Player player) {
+        UUID playerId = player.getUniqueId();
+        matchmakingQueue.remove(playerId);
+        GameManager arena = playerArenas.remove(playerId);
+        if (arena != null) {
+            arena.handleQuit(player);
+        }
+    }
+
+    public void handleDeath(Player victim, Player killer) {
+        GameManager arena = playerArenas.get(victim.getUniqueId());
+        if (arena != null) {
+            arena.handleDeath(victim, killer);
+        }
+    }
+
+    public void handlePortal(PlayerPortalEvent event) {
+        GameManager arena = playerArenas.get(event.getPlayer().getUniqueId());
+        if (arena != null) {
+            arena.handlePortal(event);
+        }
+    }
+
+    public void handlePortalCreate(PortalCreateEvent event) {
+        for (GameManager arena : arenas) {
+            arena.handlePortalCreate(event);
+        }
+    }
+
+    // The arena count is fixed while the plugin runs; everything else is picked up by the arenas
+    public void applySettings(BattleRoyaleConfig settings) {
+        if (settings.arenas().count() != arenas.size()) {
+            plugin.getLogger().warning("arenas.count is now " + settings.arenas().count() + " but stays at "
+                    + arenas.size() + " until the plugin restarts");
+        }
+        for (GameManager arena : arenas) {
+            arena.applySettings(settings);
+        }
+        // A higher maxPlayers can make room for players waiting for a lobby
+        matchmake();
+    }
+
+    public GameManager getArena(UUID playerId) {
+        return playerArenas.get(playerId);
+    }
+
+    public List<GameManager> getArenas() {
+        return Collections.unmodifiableList(arenas);
+    }
+
+    public boolean hasWaitingArena() {
+        for (GameManager arena : arenas) {
+            if (arena.getState() == GameState.LOBBY || arena.getState() == GameState.STARTING) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Fills the fullest open lobby first so rounds start as soon as possible
+    private void matchmake() {
+        int maxPlayers = plugin.getSettings().arenas().maxPlayers();
+        while (!matchmakingQueue.isEmpty()) {
+            GameManager target = null;
+            for (GameManager arena : arenas) {
+                if (arena.isAcceptingPlayers(maxPlayers)
+                        && (target == null || arena.getPlayers().getQueuedCount() > target.getPlayers().getQueuedCount())) {
+                    target = arena;
+                }
+            }
+            if (target == null) {
+                return;
+            }
+            UUID playerId = matchmakingQueue.pollFirst();
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null) {
+                continue;
+            }
+            playerArenas.put(playerId, target);
+            target.handleJoin(player);
+        }
+    }
+
+    public long sum(ToLongFunction<GameManager> value) {
+        long total = 0;
+        for (GameManager arena : arenas) {
+            total += value.applyAsLong(arena);
+        }
+        return total;
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        tick++;
+        int phase = (int) (tick % 20);
+        int count = arenas.size();
+        long secondNanos = 0;
+        for (int i = 0; i < count; i++) {
+            GameManager arena = arenas.get(i);
+            arena.tick();
+            if (i % 20 == phase) {
+                long secondStart = System.nanoTime();
+                arena.tickSecond();
+                secondNanos += System.nanoTime() - secondStart;
+            }
+            arena.flushChat();
+        }
+        long arenasDone = System.nanoTime();
+        arenaTickTime.record(arenasDone - start - secondNanos);
+        if (secondNanos > 0) {
+            secondTickTime.record(secondNanos);
+        }
+
+        // One render budget for the whole server, starting from a rotating arena so none is starved
+        int budget = plugin.getSettings().scoreboardRenderBudget();
+        for (int i = 0; i < count && budget > 0; i++) {
+            budget -= arenas.get((renderCursor + i) % count).getScoreboardHandler().flush(budget);
+        }
+        renderCursor = (renderCursor + 1) % count;
+        scoreboardTime.recordSince(arenasDone);
+
+        if (phase == 0 && !matchmakingQueue.isEmpty()) {
+            long matchmakingStart = System.nanoTime();
+            matchmake();
+            matchmakingTime.recordSince(matchmakingStart);
+        }
+        tickTime.recordSince(start);
+    }
+}
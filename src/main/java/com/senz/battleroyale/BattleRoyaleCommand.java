@@ -0,0 +1,95 @@
+package com.senz.battleroyale;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// /br admin command
+public class BattleRoyaleCommand implements CommandExecutor, TabCompleter {
+
+    private static final List<String> SUBCOMMANDS = List.of("metrics", "reload");
+
+    private final BattleRoyalePlugin plugin;
+
+    public BattleRoyaleCommand(BattleRoyalePlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 0) {
+            sender.sendMessage(ChatColor.YELLOW + "Usage: /" + label + " <" + String.join("|", SUBCOMMANDS) + ">");
+            return true;
+        }
+        switch (args[0].toLowerCase(Locale.ROOT)) {
+            case "metrics" -> showMetrics(sender);
+            case "reload" -> reload(sender);
+            default -> sender.sendMessage(ChatColor.RED + "Unknown subcommand: " + args[0]);
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        List<String> matches = new ArrayList<>();
+        if (args.length == 1) {
+            for (String subcommand : SUBCOMMANDS) {
+                if (subcommand.startsWith(args[0].toLowerCase(Locale.ROOT))) {
+                    matches.add(subcommand);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void showMetrics(CommandSender sender) {
+        MetricsRegistry metrics = plugin.getMetrics();
+        sender.sendMessage(ChatColor.GOLD + "Battle Royale metrics " + ChatColor.GRAY + "(p50 / p99 / max in ms)");
+        for (Map.Entry<String, MetricsRegistry.Histogram> entry : metrics.getHistograms().entrySet()) {
+            MetricsRegistry.Histogram histogram = entry.getValue();
+            if (histogram.getCount() == 0) {
+                continue;
+            }
+            sender.sendMessage(ChatColor.YELLOW + shortName(entry.getKey()) + ChatColor.WHITE + " "
+                    + millis(histogram.quantileNanos(0.5)) + " / " + millis(histogram.quantileNanos(0.99)) + " / "
+                    + millis(histogram.getMaxNanos()) + ChatColor.GRAY + " (" + histogram.getCount() + ")");
+        }
+        for (Map.Entry<String, MetricsRegistry.Counter> entry : metrics.getCounters().entrySet()) {
+            sender.sendMessage(ChatColor.YELLOW + shortName(entry.getKey()) + ChatColor.WHITE + " " + entry.getValue().get());
+        }
+        for (Map.Entry<String, MetricsRegistry.FunctionCounter> entry : metrics.getFunctionCounters().entrySet()) {
+            sender.sendMessage(ChatColor.YELLOW + shortName(entry.getKey()) + ChatColor.WHITE + " " + entry.getValue().total().getAsLong());
+        }
+        for (Map.Entry<String, MetricsRegistry.Gauge> entry : metrics.getGauges().entrySet()) {
+            double value = entry.getValue().value().getAsDouble();
+            String formatted = value == Math.rint(value) ? Long.toString((long) value) : String.format(Locale.ROOT, "%.2f", value);
+            sender.sendMessage(ChatColor.YELLOW + shortName(entry.getKey()) + ChatColor.WHITE + " " + formatted);
+        }
+    }
+
+    private void reload(CommandSender sender) {
+        try {
+            plugin.reloadSettings();
+        } catch (IllegalStateException e) {
+            sender.sendMessage(ChatColor.RED + "Reload failed, keeping the current settings: " + e.getMessage());
+            return;
+        }
+        sender.sendMessage(ChatColor.GREEN + "Reloaded config.yml. " + ChatColor.GRAY
+                + "Running rounds keep their timer and border; arena count, storage and thread settings need a restart.");
+    }
+
+    private String shortName(String name) {
+        return name.startsWith("br_") ? name.substring(3) : name;
+    }
+
+    private String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,261 @@
+package com.senz.battleroyale;
+
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.logging.Logger;
+
+// config.yml parsed and validated once. The plugin swaps the whole snapshot on /br reload, so a reader always sees
+// one consistent version and hot paths read fields instead of walking the YAML tree.
+public record BattleRoyaleConfig(
+        int minPlayers,
+        int expectedPlayers,
+        int startCountdownSeconds,
+        int maxGameTime,
+        double borderSize,
+        Arenas arenas,
+        Border border,
+        Pool worldPool,
+        Warmup chunkWarmup,
+        Teleports teleports,
+        Nether nether,
+        int eventBusRingSize,
+        Stats stats,
+        Replay replay,
+        Metrics metrics,
+        int worldDeletionThreads,
+        Template template,
+        Loot loot,
+        int scoreboardRenderBudget,
+        Chat chat,
+        long randomSeed,
+        boolean asyncSpawnPlanning) {
+
+    // Used by /br reload: any problem rejects the whole file, so the running settings stay in place
+    public static BattleRoyaleConfig load(ConfigurationSection config) {
+        List<String> problems = new ArrayList<>();
+        BattleRoyaleConfig loaded = parse(config, problems);
+        if (!problems.isEmpty()) {
+            throw new IllegalStateException("Invalid config.yml: " + String.join("; ", problems));
+        }
+        return loaded;
+    }
+
+    // Used at startup, where throwing would disable the plugin: each bad value falls back to its default and bad
+    // arena or phase entries are skipped
+    public static BattleRoyaleConfig loadLenient(ConfigurationSection config, Logger logger) {
+        List<String> problems = new ArrayList<>();
+        BattleRoyaleConfig loaded = parse(config, problems);
+        for (String problem : problems) {
+            logger.warning("Invalid config.yml: " + problem + "; left out or set to its default until fixed");
+        }
+        return loaded;
+    }
+
+    // Records every problem and carries on with the default for that setting
+    private static BattleRoyaleConfig parse(ConfigurationSection config, List<String> problems) {
+        int minPlayers = config.getInt("minPlayers", 4);
+        if (minPlayers < 1) {
+            problems.add("minPlayers must be at least 1");
+            minPlayers = 4;
+        }
+        int startCountdownSeconds = config.getInt("startCountdownSeconds", 30);
+        if (startCountdownSeconds < 0) {
+            problems.add("startCountdownSeconds must not be negative");
+            startCountdownSeconds = 30;
+        }
+        int maxGameTime = config.getInt("maxGameTime", 1200);
+        if (maxGameTime < 1) {
+            problems.add("maxGameTime must be at least 1");
+            maxGameTime = 1200;
+        }
+        double borderSize = config.getDouble("borderSize", 300.0);
+        if (borderSize < 16.0) {
+            problems.add("borderSize must be at least 16");
+            borderSize = 300.0;
+        }
+
+        Nether nether = new Nether(config.getBoolean("nether.enabled", true), config.getBoolean("nether.prewarm", true));
+        Map<Integer, Nether> arenaNether = new HashMap<>();
+        ConfigurationSection arenaSettings = config.getConfigurationSection("arenas.settings");
+        if (arenaSettings != null) {
+            for (String key : arenaSettings.getKeys(false)) {
+                ConfigurationSection section = arenaSettings.getConfigurationSection(key);
+                if (section == null || !key.matches("\\d+")) {
+                    problems.add("arenas.settings." + key + " is not an arena id");
+                    continue;
+                }
+                arenaNether.put(Integer.parseInt(key), new Nether(section.getBoolean("nether", nether.enabled()),
+                        section.getBoolean("netherPrewarm", nether.prewarm())));
+            }
+        }
+        Arenas arenas = new Arenas(Math.max(1, config.getInt("arenas.count", 1)),
+                Math.max(1, config.getInt("arenas.maxPlayers", 24)), Map.copyOf(arenaNether));
+
+        Border border = new Border(Math.max(0.05, Math.min(1.0, config.getDouble("border.minDurationFactor", 0.4))),
+                loadPhases(config, borderSize, problems));
+
+        Pool worldPool = new Pool(Math.max(0, config.getInt("worldPool.size", 1)),
+                Math.max(1L, config.getLong("worldPool.refillIntervalTicks", 100L)),
+                config.getDouble("worldPool.maxTickTimeMs", 40.0));
+        Warmup chunkWarmup = new Warmup(config.getBoolean("chunkWarmup.enabled", true),
+                Math.max(1, config.getInt("chunkWarmup.maxConcurrent", 16)),
+                Math.max(0, config.getInt("chunkWarmup.maxWaitSeconds", 30)));
+        Teleports teleports = new Teleports(Math.max(1, config.getInt("teleports.perTick", 4)),
+                Math.max(1, config.getInt("teleports.timeoutSeconds", 15)));
+
+        Stats stats = new Stats(config.getString("stats.file", "stats.db"),
+                Math.max(1, config.getInt("stats.batchSize", 64)),
+                Math.max(1L, config.getLong("stats.flushIntervalSeconds", 30L)),
+                Math.max(16, config.getInt("stats.cacheSize", 512)));
+        Replay replay = new Replay(config.getBoolean("replay.enabled", true),
+                config.getString("replay.folder", "replays"),
+                config.getInt("replay.keepFiles", 100),
+                Math.max(4, config.getInt("replay.bufferKiB", 256)),
+                Math.max(1, config.getInt("replay.positionSampleTicks", 20)),
+                Math.max(1L, config.getLong("replay.sampleBudgetMicros", 200L)));
+        Metrics metrics = new Metrics(config.getLong("metrics.dumpIntervalSeconds", 60L),
+                config.getString("metrics.file", "metrics.prom"));
+        Template template = new Template(config.getBoolean("template.enabled", false),
+                config.getString("template.world", "br_template"),
+                config.getBoolean("template.hardLinks", false));
+
+        Loot loot = loadLoot(config, problems);
+
+        return new BattleRoyaleConfig(minPlayers, Math.max(1, config.getInt("expectedPlayers", 64)),
+                startCountdownSeconds, maxGameTime, borderSize, arenas, border, worldPool, chunkWarmup, teleports, nether,
+                Math.max(64, config.getInt("eventBus.ringSize", 8192)), stats, replay, metrics,
+                Math.max(1, config.getInt("worldDeletion.threads", 2)), template, loot,
+                Math.max(1, config.getInt("scoreboard.renderBudgetPerTick", 20)),
+                new Chat(Math.max(0, config.getInt("chat.eliminationWindowTicks", 10)),
+                        Math.max(1, config.getInt("chat.maxEliminationLines", 3))),
+                config.getLong("randomSeed", 0L), config.getBoolean("spawns.asyncPlanning", true));
+    }
+
+    Nether nether(int arenaId) {
+        return arenas.nether().getOrDefault(arenaId, nether);
+    }
+
+    private static List<Phase> loadPhases(ConfigurationSection config, double borderSize, List<String> problems) {
+        List<Phase> phases = new ArrayList<>();
+        for (Map<?, ?> entry : config.getMapList("border.phases")) {
+            PhaseType type;
+            try {
+                type = PhaseType.valueOf(String.valueOf(entry.get("type")).toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                problems.add("border phase " + entry + " has no type wait, shrink or hold");
+                continue;
+            }
+            int seconds = Math.max(1, number(entry.get("seconds"), 60).intValue());
+            double size = number(entry.get("size"), 0).doubleValue();
+            double shift = number(entry.get("shift"), 0).doubleValue();
+            if (type == PhaseType.SHRINK && size <= 0) {
+                problems.add("border phase " + entry + " shrinks to no size");
+                continue;
+            }
+            phases.add(new Phase(type, seconds, size, shift));
+        }
+        if (phases.isEmpty()) {
+            // Older configs: a single linear shrink at borderShrinkSpeed down to 20 blocks
+            double speed = Math.max(1.0, config.getDouble("borderShrinkSpeed", 5.0));
+            int seconds = (int) Math.max(30, Math.max(0, borderSize - 20.0) / speed * 60.0);
+            phases.add(new Phase(PhaseType.SHRINK, seconds, 20.0, 0));
+        }
+        return List.copyOf(phases);
+    }
+
+    private static Loot loadLoot(ConfigurationSection config, List<String> problems) {
+        int minInterval = Math.max(1, config.getInt("minLootIntervalSeconds", 60));
+        int maxInterval = config.getInt("maxLootIntervalSeconds", 180);
+        if (maxInterval < minInterval) {
+            problems.add("maxLootIntervalSeconds is below minLootIntervalSeconds");
+            maxInterval = Math.max(minInterval, 180);
+        }
+        int minItems = Math.max(1, config.getInt("minItemsPerDrop", 1));
+        int maxItems = config.getInt("maxItemsPerDrop", 3);
+        if (maxItems < minItems) {
+            problems.add("maxItemsPerDrop is below minItemsPerDrop");
+            maxItems = Math.max(minItems, 3);
+        }
+
+        Map<LootManager.LootRarity, Integer> rarityWeights = new EnumMap<>(LootManager.LootRarity.class);
+        rarityWeights.put(LootManager.LootRarity.COMMON, config.getInt("rarityWeights.common", 60));
+        rarityWeights.put(LootManager.LootRarity.UNCOMMON, config.getInt("rarityWeights.uncommon", 30));
+        rarityWeights.put(LootManager.LootRarity.RARE, config.getInt("rarityWeights.rare", 10));
+
+        Map<String, Boolean> kits = new HashMap<>();
+        ConfigurationSection kitSection = config.getConfigurationSection("kits");
+        if (kitSection != null) {
+            for (String key : kitSection.getKeys(false)) {
+                kits.put(key, kitSection.getBoolean(key));
+            }
+        }
+        return new Loot(minInterval, maxInterval, minItems, maxItems,
+                Math.max(1, config.getInt("lootDeliveriesPerTick", 5)),
+                config.getBoolean("randomEnchantments", true),
+                Math.max(1, config.getInt("lootVariantsPerItem", 8)),
+                Collections.unmodifiableMap(rarityWeights), Map.copyOf(kits));
+    }
+
+    private static Number number(Object value, Number fallback) {
+        return value instanceof Number number ? number : fallback;
+    }
+
+    public record Arenas(int count, int maxPlayers, Map<Integer, Nether> nether) {
+    }
+
+    public record Nether(boolean enabled, boolean prewarm) {
+    }
+
+    public record Border(double minDurationFactor, List<Phase> phases) {
+    }
+
+    enum PhaseType {
+        WAIT,
+        SHRINK,
+        HOLD
+    }
+
+    record Phase(PhaseType type, int seconds, double size, double shift) {
+    }
+
+    public record Pool(int size, long refillIntervalTicks, double maxTickTimeMs) {
+    }
+
+    public record Warmup(boolean enabled, int maxConcurrent, int maxWaitSeconds) {
+    }
+
+    public record Teleports(int perTick, int timeoutSeconds) {
+    }
+
+    public record Stats(String file, int batchSize, long flushIntervalSeconds, int cacheSize) {
+    }
+
+    public record Replay(boolean enabled, String folder, int keepFiles, int bufferKiB, int positionSampleTicks,
+                         long sampleBudgetMicros) {
+    }
+
+    public record Metrics(long dumpIntervalSeconds, String file) {
+    }
+
+    public record Template(boolean enabled, String world, boolean hardLinks) {
+    }
+
+    public record Chat(int eliminationWindowTicks, int maxEliminationLines) {
+    }
+
+    public record Loot(int minIntervalSeconds, int maxIntervalSeconds, int minItemsPerDrop, int maxItemsPerDrop,
+                       int deliveriesPerTick, boolean randomEnchantments, int variantsPerItem,
+                       Map<LootManager.LootRarity, Integer> rarityWeights, Map<String, Boolean> kits) {
+
+        boolean isKitEnabled(String key) {
+            return kits.getOrDefault(key, true);
+        }
+    }
+}
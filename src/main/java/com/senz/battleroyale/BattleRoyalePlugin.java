@@ -1,60 +1,217 @@
 package com.senz.battleroyale;
 
 import org.bukkit.Bukkit;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerPortalEvent;
 import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.world.PortalCreateEvent;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
 public class BattleRoyalePlugin extends JavaPlugin {
 
-    private GameManager gameManager;
+    private volatile BattleRoyaleConfig settings;
+    private Random random;
+    private MetricsRegistry metrics;
+    private GameEventBus eventBus;
+    private PlayerStatsStore statsStore;
+    private MessageService messageService;
+    private ReplayRecorder replayRecorder;
+    private ArenaManager arenaManager;
+    private WorldManager worldManager;
+    private WorldPool worldPool;
 
     @Override
     public void onEnable() {
         saveDefaultConfig();
+        settings = BattleRoyaleConfig.loadLenient(getConfig(), getLogger());
+        random = settings.randomSeed() != 0 ? new Random(settings.randomSeed()) : new Random();
+
+        metrics = new MetricsRegistry(this);
 
-        WorldManager worldManager = new WorldManager(this);
-        LootManager lootManager = new LootManager(this);
-        ScoreboardHandler scoreboardHandler = new ScoreboardHandler(this);
-        gameManager = new GameManager(this, worldManager, lootManager, scoreboardHandler);
+        eventBus = new GameEventBus(this);
+        statsStore = new PlayerStatsStore(this);
+        eventBus.addHandler("stats", statsStore);
+        statsStore.start();
+        if (settings.replay().enabled()) {
+            replayRecorder = new ReplayRecorder(this);
+            eventBus.addHandler("replay", replayRecorder);
+        }
+        messageService = new MessageService(this);
+        worldManager = new WorldManager(this);
+        worldManager.sweepOrphanedWorlds();
+        worldManager.prepareTemplate();
+        worldPool = new WorldPool(this, worldManager);
+        arenaManager = new ArenaManager(this, worldManager, worldPool);
+        arenaManager.start();
+        worldPool.start();
+        eventBus.start();
+        registerGauges();
+        metrics.start();
 
         Bukkit.getPluginManager().registerEvents(new GameListener(), this);
+        PluginCommand command = getCommand("br");
+        if (command != null) {
+            BattleRoyaleCommand executor = new BattleRoyaleCommand(this);
+            command.setExecutor(executor);
+            command.setTabCompleter(executor);
+        }
 
         // Re-add online players (server reload)
         for (Player player : Bukkit.getOnlinePlayers()) {
-            gameManager.handleJoin(player);
+            arenaManager.handleJoin(player);
         }
     }
 
     @Override
     public void onDisable() {
-        if (gameManager != null) {
-            gameManager.shutdown();
+        if (metrics != null) {
+            metrics.shutdown();
+        }
+        if (arenaManager != null) {
+            arenaManager.shutdown();
+        }
+        if (messageService != null) {
+            messageService.shutdown();
+        }
+        if (eventBus != null) {
+            eventBus.shutdown();
+        }
+        if (statsStore != null) {
+            statsStore.shutdown();
+        }
+        if (worldPool != null) {
+            worldPool.shutdown();
+        }
+        if (worldManager != null) {
+            worldManager.shutdown();
         }
     }
 
-    public GameManager getGameManager() {
-        return gameManager;
+    // Rounds in progress keep the timer, border and spawns they started with; the rest applies from the next use
+    public void reloadSettings() {
+        // Read the file directly: reloadConfig() would swallow a YAML syntax error and fall back to the defaults
+        YamlConfiguration yaml = new YamlConfiguration();
+        try {
+            yaml.load(new File(getDataFolder(), "config.yml"));
+        } catch (IOException | InvalidConfigurationException e) {
+            throw new IllegalStateException("Could not read config.yml: " + e.getMessage(), e);
+        }
+        BattleRoyaleConfig next = BattleRoyaleConfig.load(yaml);
+        reloadConfig();
+        settings = next;
+        if (worldManager.applySettings(next)) {
+            worldPool.discardReady();
+        }
+        arenaManager.applySettings(next);
+    }
+
+    public BattleRoyaleConfig getSettings() {
+        return settings;
+    }
+
+    // Every consumer gets its own stream off the plugin's seed, so no Random is shared between threads and a fixed
+    // randomSeed replays the same loot, spawns and border shifts; main thread only (during enable)
+    Random createRandom() {
+        return new Random(random.nextLong());
+    }
+
+    public ArenaManager getArenaManager() {
+        return arenaManager;
+    }
+
+    public MetricsRegistry getMetrics() {
+        return metrics;
+    }
+
+    public GameEventBus getEventBus() {
+        return eventBus;
+    }
+
+    public PlayerStatsStore getStatsStore() {
+        return statsStore;
+    }
+
+    public MessageService getMessageService() {
+        return messageService;
+    }
+
+    public ReplayRecorder getReplayRecorder() {
+        return replayRecorder;
+    }
+
+    public WorldPool getWorldPool() {
+        return worldPool;
+    }
+
+    // Values the subsystems already track, read when metrics are shown or dumped. Running totals are counters, the rest gauges
+    private void registerGauges() {
+        metrics.gauge("br_arena_players", "Players registered in any arena",
+                () -> arenaManager.sum(arena -> arena.getPlayers().getQueuedCount()
+                        + arena.getPlayers().getAliveCount() + arena.getPlayers().getSpectatorCount()));
+        metrics.gauge("br_arena_alive_players", "Players alive in a running round",
+                () -> arenaManager.sum(arena -> arena.getPlayers().getAliveCount()));
+        metrics.gauge("br_world_pool_ready", "Pre-generated battle worlds waiting", worldPool::getReadyCount);
+        metrics.counter("br_world_pool_hits_total", "Rounds that got a pooled world", worldPool::getHits);
+        metrics.counter("br_world_pool_misses_total", "Rounds that had to create a world synchronously", worldPool::getMisses);
+        metrics.counter("br_world_deleted_bytes_total", "Bytes reclaimed by world deletion", worldManager.getDeletionService()::getBytesDeleted);
+        metrics.gauge("br_world_delete_mb_per_second", "World deletion throughput",
+                worldManager.getDeletionService()::getThroughputMbPerSecond);
+        metrics.counter("br_nether_created_total", "Nethers created on demand", worldManager::getNetherCreated);
+        metrics.counter("br_nether_skipped_total", "Rounds that finished without needing a Nether", worldManager::getNetherSkipped);
+        metrics.gauge("br_loot_delivery_queue", "Loot drops waiting for delivery",
+                () -> arenaManager.sum(arena -> arena.getLootManager().getDelivery().getQueueDepth()));
+        metrics.gauge("br_teleport_queue", "Teleports queued or in flight in the pipeline",
+                () -> arenaManager.sum(arena -> arena.getTeleports().getPending()));
+        metrics.counter("br_teleports_total", "Teleports completed through the pipeline",
+                () -> arenaManager.sum(arena -> arena.getTeleports().getTeleported()));
+        metrics.counter("br_teleports_failed_total", "Teleports that did not complete",
+                () -> arenaManager.sum(arena -> arena.getTeleports().getFailed()));
+        metrics.counter("br_replay_sample_deferred_total", "Replay sweeps that ran over budget and continued next tick",
+                () -> arenaManager.sum(arena -> arena.getReplaySampler().getDeferred()));
+        metrics.counter("br_events_published_total", "Events published to the event bus", eventBus::getPublished);
+        metrics.counter("br_events_dropped_total", "Events dropped because a handler was a full ring behind", eventBus::getDropped);
+        metrics.gauge("br_events_backlog", "Events not yet processed by the slowest handler", eventBus::getBacklog);
+        metrics.counter("br_stats_rows_written_total", "Stats rows written to the database", statsStore::getRowsWritten);
+        if (replayRecorder != null) {
+            metrics.counter("br_replay_bytes_written_total", "Replay log bytes written", replayRecorder::getBytesWritten);
+        }
     }
 
     private class GameListener implements Listener {
         @EventHandler
         public void onPlayerJoin(PlayerJoinEvent event) {
-            gameManager.handleJoin(event.getPlayer());
+            arenaManager.handleJoin(event.getPlayer());
         }
 
         @EventHandler
         public void onPlayerQuit(PlayerQuitEvent event) {
-            gameManager.handleQuit(event.getPlayer());
+            arenaManager.handleQuit(event.getPlayer());
         }
 
         @EventHandler
         public void onPlayerDeath(PlayerDeathEvent event) {
-            gameManager.handleDeath(event.getEntity(), event.getEntity().getKiller());
+            arenaManager.handleDeath(event.getEntity(), event.getEntity().getKiller());
+        }
+
+        @EventHandler(ignoreCancelled = true)
+        public void onPlayerPortal(PlayerPortalEvent event) {
+            arenaManager.handlePortal(event);
+        }
+
+        @EventHandler(ignoreCancelled = true)
+        public void onPortalCreate(PortalCreateEvent event) {
+            arenaManager.handlePortalCreate(event);
         }
     }
 }
@@ -0,0 +1,202 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.WorldBorder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Drives one arena's border through a timeline of wait/shrink/hold phases. Size and centre are worked out
+// from the timeline, so readers never ask the world; the worlds only receive the result.
+class BorderController {
+
+    private static final double DAMAGE_AMOUNT = 1.5;
+    private static final int WARNING_DISTANCE = 10;
+    // Appended after the configured phases so the border rests at its last size for the rest of the round
+    private static final BattleRoyaleConfig.Phase FINAL_HOLD =
+            new BattleRoyaleConfig.Phase(BattleRoyaleConfig.PhaseType.HOLD, Integer.MAX_VALUE / 40, 0, 0);
+
+    private final Random random;
+    private final List<World> worlds = new ArrayList<>();
+
+    private BattleRoyaleConfig.Phase[] phases;
+    private double minDurationFactor;
+    private int phaseIndex = -1;
+    private int initialAlive;
+    private int lastAlive;
+
+    // Current phase: geometry runs from (fromSize, fromX, fromZ) to (toSize, toX, toZ) as progress goes 0 -> 1
+    private double fromSize;
+    private double toSize;
+    private double fromX;
+    private double fromZ;
+    private double toX;
+    private double toZ;
+    private int phaseEndTick;
+    // Current segment of the phase; re-planned when the alive count changes the shrink speed
+    private int segmentStartTick;
+    private int segmentEndTick;
+    private double segmentStartProgress;
+
+    BorderController(Random random) {
+        this.random = random;
+    }
+
+    // The round keeps these phases even if the config is reloaded while it runs
+    void start(World world, int aliveCount, BattleRoyaleConfig settings) {
+        List<BattleRoyaleConfig.Phase> configured = settings.border().phases();
+        phases = configured.toArray(new BattleRoyaleConfig.Phase[configured.size() + 1]);
+        phases[configured.size()] = FINAL_HOLD;
+        minDurationFactor = settings.border().minDurationFactor();
+        initialAlive = Math.max(1, aliveCount);
+        lastAlive = aliveCount;
+        worlds.clear();
+        worlds.add(world);
+
+        toSize = settings.borderSize();
+        toX = 0;
+        toZ = 0;
+        phaseEndTick = Bukkit.getCurrentTick();
+        phaseIndex = -1;
+        enterPhase(0, phaseEndTick);
+        for (World tracked : worlds) {
+            WorldBorder border = tracked.getWorldBorder();
+            border.setDamageAmount(DAMAGE_AMOUNT);
+            border.setWarningDistance(WARNING_DISTANCE);
+        }
+        push();
+    }
+
+    // Additional worlds (the Nether) follow the same border from the moment they exist
+    void track(World world) {
+        if (phaseIndex < 0 || worlds.contains(world)) {
+            return;
+        }
+        worlds.add(world);
+        world.getWorldBorder().setDamageAmount(DAMAGE_AMOUNT);
+        world.getWorldBorder().setWarningDistance(WARNING_DISTANCE);
+        push(world);
+    }
+
+    void stop() {
+        phaseIndex = -1;
+        worlds.clear();
+    }
+
+    boolean isActive() {
+        return phaseIndex >= 0;
+    }
+
+    void tickSecond(int aliveCount) {
+        if (phaseIndex < 0) {
+            return;
+        }
+        int now = Bukkit.getCurrentTick();
+        boolean changed = false;
+        while (phaseIndex < phases.length - 1 && now >= phaseEndTick) {
+            enterPhase(phaseIndex + 1, phaseEndTick);
+            changed = true;
+        }
+        if (aliveCount != lastAlive) {
+            lastAlive = aliveCount;
+            if (phases[phaseIndex].type() == BattleRoyaleConfig.PhaseType.SHRINK && now < phaseEndTick) {
+                replan(now);
+                changed = true;
+            }
+        }
+        if (changed || isMovingCenter()) {
+            push();
+        }
+    }
+
+    double getSize(int tick) {
+        return phaseIndex < 0 ? 0 : lerp(fromSize, toSize, progress(tick));
+    }
+
+    double getCenterX(int tick) {
+        return phaseIndex < 0 ? 0 : lerp(fromX, toX, progress(tick));
+    }
+
+    double getCenterZ(int tick) {
+        return phaseIndex < 0 ? 0 : lerp(fromZ, toZ, progress(tick));
+    }
+
+    private void enterPhase(int index, int startTick) {
+        BattleRoyaleConfig.Phase phase = phases[index];
+        phaseIndex = index;
+        fromSize = toSize;
+        fromX = toX;
+        fromZ = toZ;
+        if (phase.type() == BattleRoyaleConfig.PhaseType.SHRINK) {
+            toSize = Math.min(fromSize, phase.size());
+            // Pick the next centre so the new border stays inside the current one
+            double maxShift = Math.min(phase.shift(), (fromSize - toSize) / 2.0);
+            if (maxShift > 0) {
+                double angle = random.nextDouble() * Math.PI * 2;
+                double distance = random.nextDouble() * maxShift;
+                toX = fromX + Math.cos(angle) * distance;
+                toZ = fromZ + Math.sin(angle) * distance;
+            }
+        }
+        segmentStartTick = startTick;
+        segmentStartProgress = 0;
+        segmentEndTick = startTick + scaledTicks(phase, 1.0);
+        phaseEndTick = phase.type() == BattleRoyaleConfig.PhaseType.SHRINK ? segmentEndTick : startTick + phase.seconds() * 20;
+        if (phase.type() != BattleRoyaleConfig.PhaseType.SHRINK) {
+            segmentEndTick = segmentStartTick;
+        }
+    }
+
+    // Keeps the path of the current shrink but changes how fast the rest of it is covered
+    private void replan(int now) {
+        double progress = progress(now);
+        segmentStartTick = now;
+        segmentStartProgress = progress;
+        segmentEndTick = now + Math.max(1, scaledTicks(phases[phaseIndex], 1.0 - progress));
+        phaseEndTick = segmentEndTick;
+    }
+
+    // Fewer players left means a faster shrink, down to minDurationFactor of the configured time
+    private int scaledTicks(BattleRoyaleConfig.Phase phase, double remaining) {
+        double factor = Math.max(minDurationFactor, Math.min(1.0, (double) lastAlive / initialAlive));
+        return (int) Math.ceil(phase.seconds() * 20 * factor * remaining);
+    }
+
+    private double progress(int tick) {
+        if (segmentEndTick <= segmentStartTick) {
+            return phases[phaseIndex].type() == BattleRoyaleConfig.PhaseType.SHRINK ? 1.0 : 0.0;
+        }
+        double t = Math.max(0.0, Math.min(1.0, (double) (tick - segmentStartTick) / (segmentEndTick - segmentStartTick)));
+        return segmentStartProgress + (1.0 - segmentStartProgress) * t;
+    }
+
+    private boolean isMovingCenter() {
+        return phases[phaseIndex].type() == BattleRoyaleConfig.PhaseType.SHRINK && (fromX != toX || fromZ != toZ)
+                && Bukkit.getCurrentTick() < segmentEndTick;
+    }
+
+    private void push() {
+        for (World world : worlds) {
+            push(world);
+        }
+    }
+
+    // A vanilla border can animate its size but not its centre, so a moving centre is stepped once a second
+    private void push(World world) {
+        int now = Bukkit.getCurrentTick();
+        WorldBorder border = world.getWorldBorder();
+        border.setCenter(getCenterX(now), getCenterZ(now));
+        border.setSize(getSize(now));
+        if (isMovingCenter()) {
+            border.setSize(getSize(now + 20), 1L);
+        } else if (now < segmentEndTick) {
+            border.setSize(toSize, Math.max(1L, (segmentEndTick - now) / 20L));
+        }
+    }
+
+    private static double lerp(double from, double to, double progress) {
+        return from + (to - from) * progress;
+    }
+}
@@ -0,0 +1,122 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.boss.BarColor;
+import org.bukkit.boss.BarStyle;
+import org.bukkit.boss.BossBar;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Loads every chunk inside the initial border through Paper's async chunk API, a bounded number at a time
+public class ChunkWarmer {
+
+    private final BattleRoyalePlugin plugin;
+    private final World world;
+    private final int maxInFlight;
+    private final int[] chunkX;
+    private final int[] chunkZ;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger loaded = new AtomicInteger();
+    private final BossBar bar;
+    private final MetricsRegistry.Histogram warmupTime;
+
+    private int next;
+    private long startNanos;
+    private long readyNanos;
+
+    public ChunkWarmer(BattleRoyalePlugin plugin, World world, double borderSize, int maxInFlight) {
+        this.plugin = plugin;
+        this.world = world;
+        this.maxInFlight = Math.max(1, maxInFlight);
+        this.warmupTime = plugin.getMetrics().histogram("br_chunk_warmup_seconds", "Loading every chunk inside the initial border");
+
+        int radius = (int) Math.ceil(borderSize / 2.0 / 16.0);
+        List<int[]> chunks = new ArrayList<>();
+        for (int x = -radius; x < radius; x++) {
+            for (int z = -radius; z < radius; z++) {
+                chunks.add(new int[]{x, z});
+            }
+        }
+        // Centre first, so spawn is ready before the edges
+        chunks.sort(Comparator.comparingInt(chunk -> chunk[0] * chunk[0] + chunk[1] * chunk[1]));
+        chunkX = new int[chunks.size()];
+        chunkZ = new int[chunks.size()];
+        for (int i = 0; i < chunks.size(); i++) {
+            chunkX[i] = chunks.get(i)[0];
+            chunkZ[i] = chunks.get(i)[1];
+        }
+
+        bar = Bukkit.createBossBar("Preparing arena...", BarColor.GREEN, BarStyle.SEGMENTED_10);
+        bar.setProgress(0.0);
+    }
+
+    // Called every tick by the owning arena until done
+    public void tick() {
+        if (readyNanos != 0) {
+            return;
+        }
+        if (startNanos == 0) {
+            startNanos = System.nanoTime();
+        }
+        while (next < chunkX.length && inFlight.get() < maxInFlight) {
+            int x = chunkX[next];
+            int z = chunkZ[next];
+            next++;
+            inFlight.incrementAndGet();
+            world.getChunkAtAsync(x, z, true).whenComplete((chunk, error) -> {
+                inFlight.decrementAndGet();
+                if (error == null) {
+                    // Hold the chunk until players have landed; the arena releases every ticket in beginRound
+                    world.addPluginChunkTicket(x, z, plugin);
+                }
+                loaded.incrementAndGet();
+            });
+        }
+
+        bar.setProgress(Math.min(1.0, getProgress()));
+        if (isDone() && readyNanos == 0) {
+            readyNanos = System.nanoTime() - startNanos;
+            warmupTime.record(readyNanos);
+            bar.removeAll();
+            double seconds = Math.max(readyNanos, 1L) / 1_000_000_000.0;
+            plugin.getLogger().info(String.format("Warmed %d chunks in %s in %.1fs (%.0f chunks/s)",
+                    chunkX.length, world.getName(), seconds, chunkX.length / seconds));
+        }
+    }
+
+    public void show(Player player) {
+        if (!isDone()) {
+            bar.addPlayer(player);
+        }
+    }
+
+    public void hide() {
+        bar.removeAll();
+    }
+
+    public boolean isDone() {
+        return loaded.get() >= chunkX.length;
+    }
+
+    public double getProgress() {
+        return chunkX.length == 0 ? 1.0 : (double) loaded.get() / chunkX.length;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public long getReadyMillis() {
+        return readyNanos / 1_000_000L;
+    }
+
+    public double getChunksPerSecond() {
+        long nanos = readyNanos != 0 ? readyNanos : System.nanoTime() - startNanos;
+        return nanos <= 0 ? 0 : loaded.get() / (nanos / 1_000_000_000.0);
+    }
+}
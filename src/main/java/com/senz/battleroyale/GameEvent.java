@@ -0,0 +1,73 @@
+package com.senz.battleroyale;
+
+import java.util.UUID;
+
+// One preallocated ring slot. Handlers read it during onEvent only; the slot is overwritten once every handler has moved on.
+// Player ids are kept as two longs each so publishing never allocates; use subject()/other() to get a UUID back.
+public final class GameEvent {
+
+    GameEventType type;
+    int arenaId;
+    int tick;
+    long nanoTime;
+    long subjectMost;
+    long subjectLeast;
+    long otherMost;
+    long otherLeast;
+    boolean hasSubject;
+    boolean hasOther;
+    int value;
+    float x;
+    float y;
+    float z;
+
+    GameEvent() {
+    }
+
+    public GameEventType getType() {
+        return type;
+    }
+
+    public int getArenaId() {
+        return arenaId;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public long getNanoTime() {
+        return nanoTime;
+    }
+
+    public UUID subject() {
+        return hasSubject ? new UUID(subjectMost, subjectLeast) : null;
+    }
+
+    public UUID other() {
+        return hasOther ? new UUID(otherMost, otherLeast) : null;
+    }
+
+    public boolean hasOther() {
+        return hasOther;
+    }
+
+    // Event-specific number: kit id for LOOT_DROP, players in the round for ROUND_START/ROUND_END,
+    // GameState ordinal for STATE_CHANGE
+    public int getValue() {
+        return value;
+    }
+
+    // POSITION: the player's coordinates. BORDER: centre x and z, with the border size in y.
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getZ() {
+        return z;
+    }
+}
@@ -0,0 +1,213 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+
+// Single-producer ring buffer in the style of the LMAX Disruptor. The main thread claims a preallocated slot, fills it and
+// publishes the sequence; every handler follows on its own thread and processes whatever is available as one batch.
+// The producer never waits: if the slowest handler is a whole ring behind, the event is dropped and counted.
+public class GameEventBus {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final BattleRoyalePlugin plugin;
+    private final GameEvent[] ring;
+    private final int mask;
+    private final Sequence published = new Sequence(-1);
+    private final List<Consumer> consumers = new ArrayList<>();
+
+    // Producer-only state
+    private long claimed = -1;
+    private long cachedGate = -1;
+    private long dropped;
+
+    private volatile boolean running;
+
+    public GameEventBus(BattleRoyalePlugin plugin) {
+        this.plugin = plugin;
+        int requested = plugin.getSettings().eventBusRingSize();
+        int size = Integer.highestOneBit(requested - 1) << 1;
+        this.ring = new GameEvent[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            ring[i] = new GameEvent();
+        }
+    }
+
+    // Handlers must be added before start()
+    public void addHandler(String name, GameEventHandler handler) {
+        if (running) {
+            throw new IllegalStateException("Event bus already started");
+        }
+        consumers.add(new Consumer(name, handler));
+    }
+
+    public void start() {
+        running = true;
+        for (Consumer consumer : consumers) {
+            Thread thread = new Thread(consumer, "BattleRoyale-Events-" + consumer.name);
+            thread.setDaemon(true);
+            consumer.thread = thread;
+            thread.start();
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        for (Consumer consumer : consumers) {
+            if (consumer.thread == null) {
+                continue;
+            }
+            LockSupport.unpark(consumer.thread);
+            try {
+                consumer.thread.join(5000L);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (dropped > 0) {
+            plugin.getLogger().warning("Event bus dropped " + dropped + " events because a handler fell a full ring behind");
+        }
+    }
+
+    public void publish(GameEventType type, int arenaId, UUID subject, UUID other, int value) {
+        publish(type, arenaId, subject, other, value, 0f, 0f, 0f);
+    }
+
+    // Main thread only
+    public void publish(GameEventType type, int arenaId, UUID subject, UUID other, int value, float x, float y, float z) {
+        long next = claimed + 1;
+        long wrapPoint = next - ring.length;
+        if (wrapPoint > cachedGate) {
+            cachedGate = slowestConsumer(next - 1);
+            if (wrapPoint > cachedGate) {
+                dropped++;
+                return;
+            }
+        }
+
+        GameEvent event = ring[(int) (next & mask)];
+        event.type = type;
+        event.arenaId = arenaId;
+        event.tick = Bukkit.getCurrentTick();
+        event.nanoTime = System.nanoTime();
+        event.hasSubject = subject != null;
+        event.subjectMost = subject != null ? subject.getMostSignificantBits() : 0;
+        event.subjectLeast = subject != null ? subject.getLeastSignificantBits() : 0;
+        event.hasOther = other != null;
+        event.otherMost = other != null ? other.getMostSignificantBits() : 0;
+        event.otherLeast = other != null ? other.getLeastSignificantBits() : 0;
+        event.value = value;
+        event.x = x;
+        event.y = y;
+        event.z = z;
+
+        claimed = next;
+        published.setRelease(next);
+    }
+
+    public long getPublished() {
+        return claimed + 1;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    // Events published but not yet seen by the slowest handler
+    public long getBacklog() {
+        return claimed - slowestConsumer(claimed);
+    }
+
+    private long slowestConsumer(long fallback) {
+        long min = fallback;
+        for (Consumer consumer : consumers) {
+            min = Math.min(min, consumer.sequence.getAcquire());
+        }
+        return min;
+    }
+
+    private final class Consumer implements Runnable {
+        private final String name;
+        private final GameEventHandler handler;
+        private final Sequence sequence = new Sequence(-1);
+        private Thread thread;
+
+        private Consumer(String name, GameEventHandler handler) {
+            this.name = name;
+            this.handler = handler;
+        }
+
+        @Override
+        public void run() {
+            long next = sequence.getAcquire() + 1;
+            while (true) {
+                long available = published.getAcquire();
+                if (available < next) {
+                    if (!running) {
+                        break;
+                    }
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                for (long current = next; current <= available; current++) {
+                    try {
+                        handler.onEvent(ring[(int) (current & mask)], current, current == available);
+                    } catch (Exception e) {
+                        plugin.getLogger().log(Level.WARNING, "Event handler " + name + " failed on sequence " + current, e);
+                    }
+                }
+                // Release the whole batch at once; the producer may reuse these slots from here on
+                sequence.setRelease(available);
+                next = available + 1;
+            }
+            try {
+                handler.onShutdown();
+            } catch (Exception e) {
+                plugin.getLogger().log(Level.WARNING, "Event handler " + name + " failed to shut down", e);
+            }
+        }
+    }
+
+    // Cursor padded on both sides so the producer's and each consumer's cursors never share a cache line
+    @SuppressWarnings("unused")
+    private static final class Sequence {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(Sequence.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private long p1, p2, p3, p4, p5, p6, p7;
+        private volatile long value;
+        private long p9, p10, p11, p12, p13, p14, p15;
+
+        private Sequence(long initial) {
+            this.value = initial;
+        }
+
+        private long getAcquire() {
+            return (long) VALUE.getAcquire(this);
+        }
+
+        private void setRelease(long next) {
+            VALUE.setRelease(this, next);
+        }
+    }
+}
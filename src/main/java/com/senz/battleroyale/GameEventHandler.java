@@ -0,0 +1,10 @@
+package com.senz.battleroyale;
+
+// Runs on its own worker thread; endOfBatch is true for the last event currently available, a good point to flush
+public interface GameEventHandler {
+
+    void onEvent(GameEvent event, long sequence, boolean endOfBatch) throws Exception;
+
+    default void onShutdown() {
+    }
+}
@@ -0,0 +1,14 @@
+package com.senz.battleroyale;
+
+public enum GameEventType {
+    PLAYER_JOIN,
+    PLAYER_QUIT,
+    PLAYER_ENTER_ROUND,
+    PLAYER_DEATH,
+    LOOT_DROP,
+    ROUND_START,
+    ROUND_END,
+    STATE_CHANGE,
+    POSITION,
+    BORDER
+}
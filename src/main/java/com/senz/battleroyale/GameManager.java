@@ -1,76 +1,120 @@
 package com.senz.battleroyale;
 
+import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.GameMode;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.entity.Player;
+import org.bukkit.event.player.PlayerPortalEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.world.PortalCreateEvent;
 import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+// One arena: its own round state machine, world, players, loot wheel and scoreboards. Ticked by ArenaManager.
 public class GameManager {
 
     private final BattleRoyalePlugin plugin;
+    private final int arenaId;
     private final WorldManager worldManager;
+    private final WorldPool worldPool;
     private final LootManager lootManager;
     private final ScoreboardHandler scoreboardHandler;
-
-    private final Set<UUID> queuedPlayers = new HashSet<>();
-    private final Set<UUID> alivePlayers = new HashSet<>();
-    private final Set<UUID> spectators = new HashSet<>();
-    private final Map<UUID, Integer> kills = new HashMap<>();
+    private final ArenaChat chat;
+    private final PlayerRegistry players;
+    private final SpawnPlanner spawnPlanner;
+    private final TeleportPipeline teleports;
+    private final BorderController border;
+    private final GameEventBus events;
+    private final ReplaySampler replaySampler;
+    private final MetricsRegistry.Histogram launchTime;
+    private final MetricsRegistry.Histogram beginTime;
+    private final MetricsRegistry.Histogram transitionTime;
+    private final Executor mainThread;
 
     private GameState state = GameState.LOBBY;
-    private BukkitTask countdownTask;
-    private BukkitTask gameTimerTask;
-    private BukkitTask scoreboardTask;
     private int countdownSeconds;
     private int timeRemaining;
     private World gameWorld;
-
-    public GameManager(BattleRoyalePlugin plugin, WorldManager worldManager, LootManager lootManager, ScoreboardHandler scoreboardHandler) {
+    private ChunkWarmer warmer;
+    private CompletableFuture<List<Location>> spawnPlan;
+    private CompletableFuture<?> transition;
+    private Runnable transitionDone;
+    private int transitionDeadline;
+    private long transitionStart;
+    private int warmWaitSeconds;
+    private GameSnapshot snapshot;
+
+    public GameManager(BattleRoyalePlugin plugin, int arenaId, WorldManager worldManager, WorldPool worldPool) {
         this.plugin = plugin;
+        this.arenaId = arenaId;
         this.worldManager = worldManager;
-        this.lootManager = lootManager;
-        this.scoreboardHandler = scoreboardHandler;
-        startScoreboardLoop();
+        this.worldPool = worldPool;
+        BattleRoyaleConfig settings = plugin.getSettings();
+        this.players = new PlayerRegistry(settings.expectedPlayers());
+        this.chat = new ArenaChat(plugin, players);
+        this.events = plugin.getEventBus();
+        this.lootManager = new LootManager(plugin, arenaId, players, chat, settings.loot());
+        this.replaySampler = new ReplaySampler(plugin, arenaId);
+        this.launchTime = plugin.getMetrics().histogram("br_round_launch_seconds", "Main-thread cost of taking a world and queuing spawns");
+        this.beginTime = plugin.getMetrics().histogram("br_round_begin_seconds", "Main-thread cost of starting the border, loot and events");
+        this.transitionTime = plugin.getMetrics().histogram("br_teleport_transition_seconds",
+                "Time for all players to land at round start or back in the lobby");
+        this.scoreboardHandler = new ScoreboardHandler(plugin, this);
+        this.spawnPlanner = new SpawnPlanner(plugin);
+        this.teleports = new TeleportPipeline(settings.teleports().perTick());
+        this.border = new BorderController(plugin.createRandom());
+        this.mainThread = task -> Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    // Only settings that are read per tick or per drop are pushed here; round settings are read when a round starts
+    void applySettings(BattleRoyaleConfig settings) {
+        teleports.setTeleportsPerTick(settings.teleports().perTick());
+        lootManager.reload(settings.loot());
+        // A lower minPlayers is picked up by the next join or quit; a reload never starts a countdown by itself
+        scoreboardHandler.markAllDirty();
     }
 
     public void handleJoin(Player player) {
-        kills.putIfAbsent(player.getUniqueId(), 0);
+        int index = players.register(player.getUniqueId());
+        events.publish(GameEventType.PLAYER_JOIN, arenaId, player.getUniqueId(), null, 0);
 
-        if (state == GameState.RUNNING || state == GameState.ENDING) {
+        // While players are still being moved into the round they are past the point where a newcomer can join;
+        // once they are on their way back to the lobby a newcomer simply joins them there
+        boolean returning = state == GameState.ENDING && transition != null;
+        if (state == GameState.RUNNING || (state == GameState.ENDING && !returning) || isLaunching()) {
             player.setGameMode(GameMode.SPECTATOR);
-            spectators.add(player.getUniqueId());
-            player.sendMessage(ChatColor.RED + "A round is currently in progress. You are spectating.");
+            players.setSpectator(index, true);
+            chat.tell(player, Messages.ROUND_IN_PROGRESS);
         } else {
-            queuedPlayers.add(player.getUniqueId());
+            players.setQueued(index, true);
             player.setGameMode(GameMode.ADVENTURE);
             player.teleport(getLobbySpawn());
-            broadcast(ChatColor.GREEN + player.getName() + ChatColor.YELLOW + " joined the lobby. (" + queuedPlayers.size() + "/" + getMinPlayers() + ")");
+            chat.broadcast(Messages.joinedLobby(player.getName(), players.getQueuedCount(), getMinPlayers()));
+            if (state == GameState.STARTING && warmer != null) {
+                warmer.show(player);
+            }
             tryStartCountdown();
         }
 
-        scoreboardHandler.updateFor(player);
+        scoreboardHandler.markAllDirty();
     }
 
     public void handleQuit(Player player) {
         UUID uuid = player.getUniqueId();
-        queuedPlayers.remove(uuid);
-        alivePlayers.remove(uuid);
-        spectators.remove(uuid);
-        lootManager.cancel(player.getUniqueId());
+        // Loot must release the index before the registry hands it to someone else
+        lootManager.cancel(uuid);
+        players.remove(uuid);
+        events.publish(GameEventType.PLAYER_QUIT, arenaId, uuid, null, 0);
 
-        if (state == GameState.STARTING && queuedPlayers.size() < getMinPlayers()) {
-            cancelCountdown(ChatColor.RED + "Not enough players to start. Countdown cancelled.");
+        if (state == GameState.STARTING && !isLaunching() && players.getQueuedCount() < getMinPlayers()) {
+            cancelCountdown(Messages.NOT_ENOUGH_TO_START);
         }
 
         if (state == GameState.RUNNING) {
@@ -78,188 +122,435 @@ public class GameManager {
         }
 
         scoreboardHandler.reset(player);
+        scoreboardHandler.markAllDirty();
     }
 
     public void handleDeath(Player victim, Player killer) {
         UUID victimId = victim.getUniqueId();
-        alivePlayers.remove(victimId);
+        int victimIndex = players.register(victimId);
+        players.setAlive(victimIndex, false);
         lootManager.cancel(victimId);
-        spectators.add(victimId);
+        players.setSpectator(victimIndex, true);
         victim.setGameMode(GameMode.SPECTATOR);
-        victim.sendMessage(ChatColor.GRAY + "You are now spectating.");
+        chat.tell(victim, Messages.NOW_SPECTATING);
 
-        if (killer != null) {
-            UUID killerId = killer.getUniqueId();
-            kills.put(killerId, kills.getOrDefault(killerId, 0) + 1);
-            Bukkit.broadcastMessage(ChatColor.RED + victim.getName() + ChatColor.GRAY + " was eliminated by " + ChatColor.GOLD + killer.getName() + ChatColor.GRAY + "!");
+        int killerIndex = killer != null ? players.indexOf(killer.getUniqueId()) : -1;
+        events.publish(GameEventType.PLAYER_DEATH, arenaId, victimId, killerIndex >= 0 ? killer.getUniqueId() : null, 0);
+        if (killerIndex >= 0) {
+            players.addKill(killerIndex);
+            chat.eliminated(victim.getName(), killer.getName());
             killer.getWorld().strikeLightningEffect(victim.getLocation());
         } else {
-            Bukkit.broadcastMessage(ChatColor.RED + victim.getName() + ChatColor.GRAY + " has fallen!");
+            chat.eliminated(victim.getName(), null);
             if (victim.getWorld() != null) {
                 victim.getWorld().strikeLightningEffect(victim.getLocation());
             }
         }
 
+        scoreboardHandler.markAllDirty();
         checkForWinner();
     }
 
-    public void shutdown() {
-        if (countdownTask != null) {
-            countdownTask.cancel();
+    public void handlePortal(PlayerPortalEvent event) {
+        if (gameWorld == null || event.getFrom().getWorld() == null) {
+            return;
         }
-        if (gameTimerTask != null) {
-            gameTimerTask.cancel();
+        World from = event.getFrom().getWorld();
+        boolean inOverworld = from.equals(gameWorld);
+        boolean inNether = from.getName().equals(gameWorld.getName() + "_nether");
+        if (!inOverworld && !inNether) {
+            return;
+        }
+        if (event.getCause() != PlayerTeleportEvent.TeleportCause.NETHER_PORTAL || !plugin.getSettings().nether(arenaId).enabled()) {
+            event.setCancelled(true);
+            return;
+        }
+
+        Location source = event.getFrom();
+        if (inOverworld) {
+            World nether = getOrCreateNether();
+            event.setTo(new Location(nether, source.getX() / 8.0, source.getY(), source.getZ() / 8.0));
+        } else {
+            event.setTo(new Location(gameWorld, source.getX() * 8.0, source.getY(), source.getZ() * 8.0));
+        }
+    }
+
+    // Lighting a portal is a strong hint someone will use it, so build the Nether a tick later instead of on first entry
+    public void handlePortalCreate(PortalCreateEvent event) {
+        BattleRoyaleConfig.Nether nether = plugin.getSettings().nether(arenaId);
+        if (!nether.enabled() || !nether.prewarm() || gameWorld == null || !event.getWorld().equals(gameWorld)) {
+            return;
         }
-        if (scoreboardTask != null) {
-            scoreboardTask.cancel();
+        if (event.getReason() != PortalCreateEvent.CreateReason.FIRE) {
+            return;
         }
+        World world = gameWorld;
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            if (world.equals(gameWorld) && state == GameState.RUNNING) {
+                getOrCreateNether();
+            }
+        });
+    }
+
+    public void shutdown() {
+        chat.drain();
+        scoreboardHandler.stop();
         lootManager.stopAll();
+        teleports.clear();
+        border.stop();
+        spawnPlan = null;
+        transition = null;
+        transitionDone = null;
         if (gameWorld != null) {
             worldManager.deleteWorldAsync(gameWorld);
         }
-        for (Player player : Bukkit.getOnlinePlayers()) {
+        if (warmer != null) {
+            warmer.hide();
+            worldManager.deleteWorldAsync(warmer.getWorld());
+            warmer = null;
+        }
+        for (int index = players.nextPlayer(0); index >= 0; index = players.nextPlayer(index + 1)) {
+            Player player = Bukkit.getPlayer(players.playerAt(index));
+            if (player == null) {
+                continue;
+            }
             scoreboardHandler.reset(player);
             player.setGameMode(GameMode.ADVENTURE);
             player.teleport(getLobbySpawn());
         }
-        state = GameState.LOBBY;
+        setState(GameState.LOBBY);
+    }
+
+    // Called every tick by ArenaManager
+    void tick() {
+        lootManager.tick();
+        teleports.tick();
+        tickTransition();
+        if (state == GameState.RUNNING) {
+            replaySampler.tick(players, border);
+        }
+        if (warmer != null) {
+            warmer.tick();
+            // Plan spawns once the border's chunks are warm so the snapshots are cheap to take
+            if (spawnPlan == null && warmer.isDone()) {
+                spawnPlan = planSpawns(warmer.getWorld());
+            }
+        }
+    }
+
+    // Called once per second by ArenaManager; arenas are phase-shifted so they don't all land on the same tick
+    void tickSecond() {
+        if (transition != null) {
+            return;
+        }
+        if (state == GameState.STARTING) {
+            tickCountdown();
+        } else if (state == GameState.RUNNING) {
+            if (timeRemaining <= 0) {
+                endRound(null, Messages.TIME_LIMIT);
+                return;
+            }
+            timeRemaining--;
+            border.tickSecond(players.getAliveCount());
+            scoreboardHandler.markAllDirty();
+        }
+    }
+
+    public boolean isAcceptingPlayers(int maxPlayers) {
+        return (state == GameState.LOBBY || state == GameState.STARTING) && !isLaunching()
+                && players.getQueuedCount() < maxPlayers;
     }
 
     private void tryStartCountdown() {
         if (state != GameState.LOBBY) {
             return;
         }
-        if (queuedPlayers.size() >= getMinPlayers()) {
+        if (players.getQueuedCount() >= getMinPlayers()) {
             startCountdown();
         }
     }
 
     private void startCountdown() {
-        state = GameState.STARTING;
-        countdownSeconds = plugin.getConfig().getInt("startCountdownSeconds", 30);
-        broadcast(ChatColor.GOLD + "Round starting in " + countdownSeconds + " seconds!");
-
-        countdownTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (queuedPlayers.size() < getMinPlayers()) {
-                    cancelCountdown(ChatColor.RED + "Countdown stopped: not enough players.");
-                    return;
+        setState(GameState.STARTING);
+        BattleRoyaleConfig settings = plugin.getSettings();
+        countdownSeconds = settings.startCountdownSeconds();
+        chat.broadcast(Messages.roundStartingIn(countdownSeconds));
+        scoreboardHandler.markAllDirty();
+
+        // Reserve the round's world now so its chunks load during the countdown; kept if the countdown is cancelled
+        if (warmer == null && settings.chunkWarmup().enabled()) {
+            warmer = new ChunkWarmer(plugin, worldPool.take(), settings.borderSize(), settings.chunkWarmup().maxConcurrent());
+        }
+        if (warmer != null) {
+            for (int index = players.nextQueued(0); index >= 0; index = players.nextQueued(index + 1)) {
+                Player player = Bukkit.getPlayer(players.playerAt(index));
+                if (player != null) {
+                    warmer.show(player);
                 }
+            }
+        }
+    }
 
-                if (countdownSeconds <= 0) {
-                    cancel();
-                    startGame();
-                    return;
-                }
+    private void tickCountdown() {
+        if (players.getQueuedCount() < getMinPlayers()) {
+            cancelCountdown(Messages.COUNTDOWN_STOPPED);
+            return;
+        }
 
-                if (countdownSeconds == 30 || countdownSeconds == 15 || countdownSeconds <= 5) {
-                    broadcast(ChatColor.YELLOW + "Game starting in " + countdownSeconds + "...");
+        if (countdownSeconds <= 0) {
+            if (warmer != null && !warmer.isDone()
+                    && warmWaitSeconds < plugin.getSettings().chunkWarmup().maxWaitSeconds()) {
+                if (warmWaitSeconds % 5 == 0) {
+                    chat.broadcast(Messages.waitingForArena((int) (warmer.getProgress() * 100)));
                 }
-                countdownSeconds--;
+                warmWaitSeconds++;
+                return;
             }
-        }.runTaskTimer(plugin, 20L, 20L);
+            startGame();
+            return;
+        }
+
+        if (countdownSeconds == 30 || countdownSeconds == 15 || countdownSeconds <= 5) {
+            chat.broadcast(Messages.gameStartingIn(countdownSeconds));
+        }
+        countdownSeconds--;
+        scoreboardHandler.markAllDirty();
     }
 
-    private void cancelCountdown(String message) {
-        if (countdownTask != null) {
-            countdownTask.cancel();
-            countdownTask = null;
+    private void cancelCountdown(Component message) {
+        if (warmer != null) {
+            warmer.hide();
         }
-        state = GameState.LOBBY;
+        setState(GameState.LOBBY);
+        scoreboardHandler.markAllDirty();
         if (message != null) {
-            broadcast(message);
+            chat.broadcast(message);
         }
     }
 
+    // The round only switches to RUNNING once everyone has landed (or the teleport timeout passes)
     private void startGame() {
-        state = GameState.RUNNING;
-        timeRemaining = plugin.getConfig().getInt("maxGameTime", 1200);
-
-        gameWorld = worldManager.createGameWorld();
-        alivePlayers.clear();
-        alivePlayers.addAll(queuedPlayers);
+        long start = System.nanoTime();
+        if (warmer != null) {
+            warmer.hide();
+            gameWorld = warmer.getWorld();
+            warmer = null;
+        } else {
+            gameWorld = worldPool.take();
+        }
+        warmWaitSeconds = 0;
+        players.clearAlive();
 
-        for (UUID uuid : queuedPlayers) {
-            Player player = Bukkit.getPlayer(uuid);
-            if (player == null) {
-                alivePlayers.remove(uuid);
+        for (int index = players.nextQueued(0); index >= 0; index = players.nextQueued(index + 1)) {
+            if (Bukkit.getPlayer(players.playerAt(index)) == null) {
                 continue;
             }
-            kills.put(uuid, 0);
-            player.setGameMode(GameMode.SURVIVAL);
-            Location spawn = gameWorld.getSpawnLocation();
-            player.teleport(spawn);
-            lootManager.scheduleNextDrop(player.getUniqueId());
+            players.setAlive(index, true);
+            players.resetKills(index);
+        }
+        players.clearQueued();
+        players.clearSpectators();
+
+        // Usually already computed during the countdown; otherwise players wait in the lobby for a few ticks
+        CompletableFuture<List<Location>> plan = spawnPlan != null ? spawnPlan : planSpawns(gameWorld);
+        spawnPlan = null;
+        World world = gameWorld;
+        CompletableFuture<Void> landed = plan.exceptionally(error -> {
+            plugin.getLogger().warning("Spawn planning failed for " + world.getName() + ": " + error.getMessage());
+            return List.of();
+        }).thenComposeAsync(spawns -> spreadPlayers(world, spawns), mainThread);
+        chat.broadcast(Messages.TELEPORTING);
+        awaitTransition(landed, this::beginRound);
+        launchTime.recordSince(start);
+    }
+
+    private void beginRound() {
+        long start = System.nanoTime();
+        // ROUND_START goes out first: the replay recorder opens the match log on it and must see the RUNNING change
+        events.publish(GameEventType.ROUND_START, arenaId, null, null, players.getAliveCount());
+        setState(GameState.RUNNING);
+        timeRemaining = plugin.getSettings().maxGameTime();
+        // Everyone has landed, so the warmed chunks no longer need pinning; the server unloads them as players spread out
+        gameWorld.removePluginChunkTickets(plugin);
+
+        for (int index = players.nextAlive(0); index >= 0; index = players.nextAlive(index + 1)) {
+            lootManager.scheduleNextDrop(players.playerAt(index));
+            events.publish(GameEventType.PLAYER_ENTER_ROUND, arenaId, players.playerAt(index), null, 0);
         }
-        queuedPlayers.clear();
-        spectators.clear();
+        border.start(gameWorld, players.getAliveCount(), plugin.getSettings());
+        replaySampler.reset();
+
+        chat.broadcast(Messages.ROUND_STARTED);
+        scoreboardHandler.markAllDirty();
+        beginTime.recordSince(start);
+        // Anyone who left while the round was loading
+        checkForWinner();
+    }
 
-        worldManager.prepareWorld(gameWorld, plugin.getConfig());
+    private World getOrCreateNether() {
+        World nether = worldManager.getOrCreateNether(gameWorld);
+        border.track(nether);
+        return nether;
+    }
 
-        broadcast(ChatColor.GREEN + "Round started! Survive and eliminate your opponents.");
+    private CompletableFuture<List<Location>> planSpawns(World world) {
+        BattleRoyaleConfig settings = plugin.getSettings();
+        return spawnPlanner.plan(world, settings.borderSize(), settings.arenas().maxPlayers());
+    }
 
-        gameTimerTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                if (timeRemaining <= 0) {
-                    endRound(null, ChatColor.YELLOW + "Time limit reached!");
-                    return;
+    private CompletableFuture<Void> spreadPlayers(World world, List<Location> spawns) {
+        // A plan that outlived the timeout still moves players that were left in the lobby
+        if (!(isLaunching() || state == GameState.RUNNING) || !world.equals(gameWorld)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (spawns.isEmpty()) {
+            plugin.getLogger().warning("No safe spawn points found in " + world.getName() + ", using the world spawn");
+        }
+        List<CompletableFuture<Boolean>> moves = new ArrayList<>();
+        int next = 0;
+        for (int index = players.nextAlive(0); index >= 0; index = players.nextAlive(index + 1)) {
+            Location spawn = spawns.isEmpty() ? world.getSpawnLocation() : spawns.get(next++ % spawns.size());
+            UUID playerId = players.playerAt(index);
+            moves.add(teleports.submit(playerId, spawn, GameMode.SURVIVAL).thenApply(moved -> {
+                if (!moved) {
+                    missRound(playerId);
                 }
-                timeRemaining--;
-                scoreboardHandler.updateAll();
-            }
-        }.runTaskTimer(plugin, 20L, 20L);
+                return moved;
+            }));
+        }
+        return CompletableFuture.allOf(moves.toArray(new CompletableFuture[0]));
     }
 
-    public void endRound(UUID winner, String reason) {
-        if (state == GameState.ENDING || state == GameState.LOBBY) {
+    // Still in the lobby after the retry: the player sits this round out instead of counting as alive somewhere else
+    private void missRound(UUID playerId) {
+        int index = players.indexOf(playerId);
+        if (!isLaunching() || index < 0 || !players.isAlive(index)) {
+            return;
+        }
+        players.setAlive(index, false);
+        players.setQueued(index, true);
+        Player player = Bukkit.getPlayer(playerId);
+        if (player != null) {
+            chat.tell(player, Messages.MISSED_ROUND);
+        }
+        scoreboardHandler.markAllDirty();
+    }
+
+    private void setState(GameState next) {
+        state = next;
+        events.publish(GameEventType.STATE_CHANGE, arenaId, null, null, next.ordinal());
+    }
+
+    private boolean isLaunching() {
+        return state == GameState.STARTING && transition != null;
+    }
+
+    private void awaitTransition(CompletableFuture<?> future, Runnable done) {
+        transition = future;
+        transitionDone = done;
+        transitionStart = System.nanoTime();
+        transitionDeadline = Bukkit.getCurrentTick() + plugin.getSettings().teleports().timeoutSeconds() * 20;
+    }
+
+    private void tickTransition() {
+        if (transition == null) {
             return;
         }
-        state = GameState.ENDING;
+        if (!transition.isDone()) {
+            if (Bukkit.getCurrentTick() < transitionDeadline) {
+                return;
+            }
+            plugin.getLogger().warning("Arena " + arenaId + ": teleports still pending after the timeout ("
+                    + teleports.getPending() + " outstanding), moving the rest synchronously");
+            teleports.drainSynchronously();
+        }
+        transitionTime.recordSince(transitionStart);
+        Runnable done = transitionDone;
+        transition = null;
+        transitionDone = null;
+        done.run();
+    }
 
-        if (gameTimerTask != null) {
-            gameTimerTask.cancel();
-            gameTimerTask = null;
+    public void endRound(UUID winner, Component reason) {
+        if (state == GameState.ENDING || state == GameState.LOBBY) {
+            return;
         }
+        setState(GameState.ENDING);
+        scoreboardHandler.markAllDirty();
+        teleports.clear();
+        events.publish(GameEventType.ROUND_END, arenaId, winner, null, players.getAliveCount());
 
         lootManager.stopAll();
+        lootManager.refreshVariants();
 
         if (winner != null) {
             Player player = Bukkit.getPlayer(winner);
             if (player != null) {
-                broadcast(ChatColor.GOLD + player.getName() + ChatColor.GREEN + " wins the round!");
+                chat.broadcast(Messages.wins(player.getName()));
             }
         }
 
         if (reason != null) {
-            broadcast(reason);
+            chat.broadcast(reason);
         }
 
         new BukkitRunnable() {
             @Override
             public void run() {
-                queuedPlayers.clear();
-                alivePlayers.clear();
-                spectators.clear();
-
-                for (Player player : Bukkit.getOnlinePlayers()) {
-                    player.teleport(getLobbySpawn());
-                    player.setGameMode(GameMode.ADVENTURE);
-                    queuedPlayers.add(player.getUniqueId());
-                    kills.put(player.getUniqueId(), 0);
-                    scoreboardHandler.updateFor(player);
-                }
+                returnToLobby();
+            }
+        }.runTaskLater(plugin, 100L);
+    }
 
-                if (gameWorld != null) {
-                    worldManager.deleteWorldAsync(gameWorld);
-                    gameWorld = null;
+    private void returnToLobby() {
+        players.clearQueued();
+        players.clearAlive();
+        players.clearSpectators();
+
+        List<CompletableFuture<Boolean>> moves = new ArrayList<>();
+        Location lobby = getLobbySpawn();
+        String worldName = gameWorld != null ? gameWorld.getName() : null;
+        for (int index = players.nextPlayer(0); index >= 0; index = players.nextPlayer(index + 1)) {
+            UUID playerId = players.playerAt(index);
+            if (Bukkit.getPlayer(playerId) == null) {
+                continue;
+            }
+            moves.add(teleports.submit(playerId, lobby, GameMode.ADVENTURE).thenApply(moved -> {
+                if (!moved) {
+                    evacuate(playerId, worldName);
                 }
+                return moved;
+            }));
+            players.setQueued(index, true);
+            players.resetKills(index);
+        }
+        awaitTransition(CompletableFuture.allOf(moves.toArray(new CompletableFuture[0])), this::finishRound);
+    }
 
-                state = GameState.LOBBY;
-                tryStartCountdown();
+    // The lobby is the main world, so a player the pipeline could not move there is disconnected instead; the server
+    // puts them at the main world spawn when they rejoin, since their battle world is gone by then
+    private void evacuate(UUID playerId, String worldName) {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player == null || worldName == null || !player.getWorld().getName().startsWith(worldName)) {
+            return;
+        }
+        plugin.getLogger().warning("Arena " + arenaId + ": could not move " + player.getName() + " back to the lobby, disconnecting them");
+        player.kick(Messages.STUCK_IN_ARENA);
+    }
+
+    private void finishRound() {
+        if (gameWorld != null) {
+            if (Bukkit.getWorld(gameWorld.getName() + "_nether") == null) {
+                worldManager.recordRoundWithoutNether();
             }
-        }.runTaskLater(plugin, 100L);
+            worldManager.deleteWorldAsync(gameWorld);
+            gameWorld = null;
+        }
+        border.stop();
+
+        setState(GameState.LOBBY);
+        scoreboardHandler.markAllDirty();
+        tryStartCountdown();
     }
 
     private void checkForWinner() {
@@ -267,27 +558,29 @@ public class GameManager {
             return;
         }
 
-        if (alivePlayers.size() <= 1) {
-            UUID winner = alivePlayers.stream().findFirst().orElse(null);
-            endRound(winner, null);
+        if (players.getAliveCount() <= 1) {
+            endRound(players.firstAlive(), null);
         }
     }
 
-    private void broadcast(String message) {
-        Bukkit.broadcastMessage(ChatColor.DARK_PURPLE + "[BattleRoyale] " + ChatColor.RESET + message);
+    // Shared, read-only view of the round for this tick; rebuilt at most once per server tick
+    public GameSnapshot getSnapshot() {
+        int tick = Bukkit.getCurrentTick();
+        if (snapshot == null || snapshot.tick() != tick) {
+            int playerCount = state == GameState.RUNNING ? players.getAliveCount() : players.getQueuedCount();
+            double borderSize = border.isActive() ? border.getSize(tick) : 0;
+            snapshot = new GameSnapshot(tick, state, playerCount, getMinPlayers(), countdownSeconds, timeRemaining, borderSize,
+                    players.publish());
+        }
+        return snapshot;
     }
 
-    private void startScoreboardLoop() {
-        scoreboardTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                scoreboardHandler.updateAll();
-            }
-        }.runTaskTimer(plugin, 20L, 20L);
+    public int getArenaId() {
+        return arenaId;
     }
 
     public int getMinPlayers() {
-        return plugin.getConfig().getInt("minPlayers", 4);
+        return plugin.getSettings().minPlayers();
     }
 
     public GameState getState() {
@@ -306,16 +599,8 @@ public class GameManager {
         return gameWorld;
     }
 
-    public Set<UUID> getAlivePlayers() {
-        return Collections.unmodifiableSet(alivePlayers);
-    }
-
-    public Set<UUID> getQueuedPlayers() {
-        return Collections.unmodifiableSet(queuedPlayers);
-    }
-
-    public Map<UUID, Integer> getKills() {
-        return Collections.unmodifiableMap(kills);
+    public PlayerRegistry getPlayers() {
+        return players;
     }
 
     public ScoreboardHandler getScoreboardHandler() {
@@ -327,6 +612,18 @@ public class GameManager {
         return world.getSpawnLocation();
     }
 
+    void flushChat() {
+        chat.flush();
+    }
+
+    TeleportPipeline getTeleports() {
+        return teleports;
+    }
+
+    ReplaySampler getReplaySampler() {
+        return replaySampler;
+    }
+
     public LootManager getLootManager() {
         return lootManager;
     }
@@ -0,0 +1,13 @@
+package com.senz.battleroyale;
+
+record GameSnapshot(
+        int tick,
+        GameState state,
+        int playerCount,
+        int minPlayers,
+        int countdownSeconds,
+        int timeRemaining,
+        double borderSize,
+        PlayerRegistry.Snapshot players
+) {
+}
@@ -0,0 +1,50 @@
+package com.senz.battleroyale;
+
+// Every loot kit: the id written to replay logs, the key that toggles it under kits: in config.yml and its display name.
+// Ids are part of the replay format, so new kits get the next id and existing ids never change.
+enum Kit {
+    SWORD(0, "sword", "Sword", LootManager.LootRarity.COMMON),
+    MACE(1, "mace", "Mace", LootManager.LootRarity.UNCOMMON),
+    UHC(2, "uhc", "UHC", LootManager.LootRarity.COMMON),
+    AXE_SHIELD(3, "axe_shield", "Axe & Shield", LootManager.LootRarity.COMMON),
+    SNIPER(4, "sniper", "Sniper", LootManager.LootRarity.UNCOMMON),
+    FAIRY(5, "fairy", "Fairy", LootManager.LootRarity.RARE),
+    MACE_ELYTRA(6, "mace_elytra", "Mace + Elytra", LootManager.LootRarity.RARE);
+
+    private final int id;
+    private final String key;
+    private final String displayName;
+    private final LootManager.LootRarity rarity;
+
+    Kit(int id, String key, String displayName, LootManager.LootRarity rarity) {
+        this.id = id;
+        this.key = key;
+        this.displayName = displayName;
+        this.rarity = rarity;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    String getDisplayName() {
+        return displayName;
+    }
+
+    LootManager.LootRarity getRarity() {
+        return rarity;
+    }
+
+    static Kit byId(int id) {
+        for (Kit kit : values()) {
+            if (kit.id == id) {
+                return kit;
+            }
+        }
+        return null;
+    }
+}
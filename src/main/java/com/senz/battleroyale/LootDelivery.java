@@ -0,0 +1,127 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Spreads loot drops over ticks: each drop is one inventory update, and at most N drops are delivered per tick
+final class LootDelivery {
+
+    private final Deque<Pending> queue = new ArrayDeque<>();
+    private final ArenaChat chat;
+    private final MetricsRegistry.Histogram latency;
+    private int deliveriesPerTick = 5;
+
+    private int peakQueueDepth;
+    private long delivered;
+    private long totalLatencyNanos;
+    private long maxLatencyNanos;
+
+    LootDelivery(ArenaChat chat, MetricsRegistry.Histogram latency) {
+        this.chat = chat;
+        this.latency = latency;
+    }
+
+    void configure(int deliveriesPerTick) {
+        this.deliveriesPerTick = Math.max(1, deliveriesPerTick);
+    }
+
+    void enqueue(UUID playerId, ItemStack[] items) {
+        queue.addLast(new Pending(playerId, items, System.nanoTime()));
+        peakQueueDepth = Math.max(peakQueueDepth, queue.size());
+    }
+
+    void tick() {
+        for (int i = 0; i < deliveriesPerTick; i++) {
+            Pending pending = queue.pollFirst();
+            if (pending == null) {
+                return;
+            }
+            Player player = Bukkit.getPlayer(pending.playerId());
+            if (player == null || !player.isOnline()) {
+                continue;
+            }
+            deliver(player, pending.items());
+
+            long waited = System.nanoTime() - pending.enqueuedAt();
+            totalLatencyNanos += waited;
+            maxLatencyNanos = Math.max(maxLatencyNanos, waited);
+            latency.record(waited);
+            delivered++;
+        }
+    }
+
+    void cancel(UUID playerId) {
+        queue.removeIf(pending -> pending.playerId().equals(playerId));
+    }
+
+    void clear() {
+        queue.clear();
+    }
+
+    private void deliver(Player player, ItemStack[] items) {
+        Map<Integer, ItemStack> overflow = player.getInventory().addItem(items);
+        if (!overflow.isEmpty()) {
+            Location location = player.getLocation();
+            for (ItemStack stack : merge(overflow.values())) {
+                player.getWorld().dropItemNaturally(location, stack);
+            }
+        }
+        chat.tell(player, Messages.LOOT_RECEIVED);
+    }
+
+    // Folds similar leftovers together so a full inventory spawns one item entity per stack, not per item
+    private List<ItemStack> merge(Collection<ItemStack> leftovers) {
+        List<ItemStack> merged = new ArrayList<>(leftovers.size());
+        for (ItemStack leftover : leftovers) {
+            int remaining = leftover.getAmount();
+            for (ItemStack stack : merged) {
+                if (remaining == 0) {
+                    break;
+                }
+                if (stack.isSimilar(leftover) && stack.getAmount() < stack.getMaxStackSize()) {
+                    int moved = Math.min(remaining, stack.getMaxStackSize() - stack.getAmount());
+                    stack.setAmount(stack.getAmount() + moved);
+                    remaining -= moved;
+                }
+            }
+            if (remaining > 0) {
+                leftover.setAmount(remaining);
+                merged.add(leftover);
+            }
+        }
+        return merged;
+    }
+
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    int getPeakQueueDepth() {
+        return peakQueueDepth;
+    }
+
+    long getDelivered() {
+        return delivered;
+    }
+
+    long getAverageLatencyMillis() {
+        return delivered == 0 ? 0 : (totalLatencyNanos / delivered) / 1_000_000L;
+    }
+
+    long getMaxLatencyMillis() {
+        return maxLatencyNanos / 1_000_000L;
+    }
+
+    private record Pending(UUID playerId, ItemStack[] items, long enqueuedAt) {
+    }
+}
@@ -1,7 +1,6 @@
 package com.senz.battleroyale;
 
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
@@ -10,11 +9,9 @@ import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.inventory.meta.PotionMeta;
 import org.bukkit.potion.PotionData;
 import org.bukkit.potion.PotionType;
-import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.util.ArrayList;
-import java.util.EnumMap;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,58 +20,70 @@ import java.util.UUID;
 
 public class LootManager {
 
-    private final BattleRoyalePlugin plugin;
-    private final Random random = new Random();
-
-    private final Map<UUID, BukkitTask> scheduledTasks = new HashMap<>();
-    private final Map<UUID, Long> nextDropAt = new HashMap<>();
-    private final List<LootKit> kits = new ArrayList<>();
-    private final Map<LootRarity, Integer> rarityWeights = new EnumMap<>(LootRarity.class);
-    private boolean randomEnchantments;
+    private static final int WHEEL_SLOTS = 1024;
+    private static final int WHEEL_MASK = WHEEL_SLOTS - 1;
+    private static final int NONE = -1;
 
-    public LootManager(BattleRoyalePlugin plugin) {
+    private final BattleRoyalePlugin plugin;
+    private final int arenaId;
+    private final PlayerRegistry players;
+    private final Random random;
+
+    // Hashed timer wheel keyed by registry index: every scheduled player sits in a doubly linked list off slot (dueTick & mask)
+    private final int[] slotHeads = new int[WHEEL_SLOTS];
+    private long[] dueTick = new long[0];
+    private int[] nextInSlot = new int[0];
+    private int[] prevInSlot = new int[0];
+    private int[] fireBuffer = new int[64];
+    private long currentTick;
+
+    private final LootVariantCache variantCache;
+    private final ArenaChat chat;
+    private final LootDelivery delivery;
+    private final MetricsRegistry.Counter dropsCounter;
+    private final MetricsRegistry.Counter itemsCounter;
+    private final MetricsRegistry.Histogram rollTime;
+    private LootTable lootTable;
+    private List<LootKit> kits = List.of();
+
+    LootManager(BattleRoyalePlugin plugin, int arenaId, PlayerRegistry players, ArenaChat chat, BattleRoyaleConfig.Loot settings) {
         this.plugin = plugin;
-        reload();
+        this.arenaId = arenaId;
+        this.players = players;
+        this.random = plugin.createRandom();
+        this.variantCache = new LootVariantCache(plugin);
+        this.chat = chat;
+        this.delivery = new LootDelivery(chat, plugin.getMetrics().histogram("br_loot_delivery_latency_seconds",
+                "Time from a loot roll to the items reaching the inventory"));
+        this.dropsCounter = plugin.getMetrics().counter("br_loot_drops_total", "Loot drops rolled");
+        this.itemsCounter = plugin.getMetrics().counter("br_loot_items_total", "Items handed out in loot drops");
+        this.rollTime = plugin.getMetrics().histogram("br_loot_roll_seconds", "Rolling and copying one loot drop");
+        Arrays.fill(slotHeads, NONE);
+        reload(settings);
     }
 
-    public void reload() {
-        cancelAllTasks();
-        kits.clear();
-        rarityWeights.clear();
-        randomEnchantments = plugin.getConfig().getBoolean("randomEnchantments", true);
-
-        rarityWeights.put(LootRarity.COMMON, plugin.getConfig().getInt("rarityWeights.common", 60));
-        rarityWeights.put(LootRarity.UNCOMMON, plugin.getConfig().getInt("rarityWeights.uncommon", 30));
-        rarityWeights.put(LootRarity.RARE, plugin.getConfig().getInt("rarityWeights.rare", 10));
-
-        Map<String, Boolean> kitToggles = new HashMap<>();
-        if (plugin.getConfig().getConfigurationSection("kits") != null) {
-            for (String key : plugin.getConfig().getConfigurationSection("kits").getKeys(false)) {
-                kitToggles.put(key, plugin.getConfig().getBoolean("kits." + key));
+    // Scheduled drops keep their due ticks; only the rolls made from now on use the new table
+    public void reload(BattleRoyaleConfig.Loot settings) {
+        List<LootKit> kits = new ArrayList<>();
+        for (Kit kit : Kit.values()) {
+            if (settings.isKitEnabled(kit.getKey())) {
+                kits.add(new LootKit(kit, createItems(kit)));
             }
         }
 
-        if (kitToggles.getOrDefault("sword", true)) {
-            kits.add(new LootKit("Sword", LootRarity.COMMON, createSwordKit()));
-        }
-        if (kitToggles.getOrDefault("mace", true)) {
-            kits.add(new LootKit("Mace", LootRarity.UNCOMMON, createMaceKit()));
-        }
-        if (kitToggles.getOrDefault("uhc", true)) {
-            kits.add(new LootKit("UHC", LootRarity.COMMON, createUhcKit()));
-        }
-        if (kitToggles.getOrDefault("axe_shield", true)) {
-            kits.add(new LootKit("Axe & Shield", LootRarity.COMMON, createAxeShieldKit()));
-        }
-        if (kitToggles.getOrDefault("sniper", true)) {
-            kits.add(new LootKit("Sniper", LootRarity.UNCOMMON, createSniperKit()));
-        }
-        if (kitToggles.getOrDefault("fairy", true)) {
-            kits.add(new LootKit("Fairy", LootRarity.RARE, createFairyKit()));
-        }
-        if (kitToggles.getOrDefault("mace_elytra", true)) {
-            kits.add(new LootKit("Mace + Elytra", LootRarity.RARE, createMaceElytraKit()));
-        }
+        this.kits = List.copyOf(kits);
+        lootTable = LootTable.compile(kits, settings.rarityWeights(),
+                settings.minItemsPerDrop(),
+                settings.maxItemsPerDrop(),
+                settings.minIntervalSeconds(),
+                settings.maxIntervalSeconds());
+        variantCache.configure(settings.variantsPerItem(), settings.randomEnchantments());
+        variantCache.bake(lootTable);
+        delivery.configure(settings.deliveriesPerTick());
+    }
+
+    public void refreshVariants() {
+        variantCache.refreshAsync(lootTable);
     }
 
     public void scheduleNextDrop(UUID playerId) {
@@ -82,102 +91,163 @@ public class LootManager {
         if (player == null || !player.isOnline()) {
             return;
         }
-        int min = plugin.getConfig().getInt("minLootIntervalSeconds", 60);
-        int max = plugin.getConfig().getInt("maxLootIntervalSeconds", 180);
-        int interval = random.nextInt(Math.max(1, max - min + 1)) + min;
-
-        nextDropAt.put(playerId, System.currentTimeMillis() + (interval * 1000L));
+        int interval = lootTable.rollIntervalSeconds(random);
 
-        BukkitTask existing = scheduledTasks.remove(playerId);
-        if (existing != null) {
-            existing.cancel();
+        int index = players.indexOf(playerId);
+        if (index < 0) {
+            return;
         }
+        ensureCapacity(index);
+        unlink(index);
+        dueTick[index] = currentTick + Math.max(1L, interval * 20L);
+        link(index);
+    }
 
-        BukkitTask task = new BukkitRunnable() {
-            @Override
-            public void run() {
-                giveLoot(playerId);
+    // Advanced once per tick by the owning arena
+    void tick() {
+        currentTick++;
+        int slot = (int) (currentTick & WHEEL_MASK);
+        int count = 0;
+        for (int index = slotHeads[slot]; index != NONE; index = nextInSlot[index]) {
+            if (dueTick[index] <= currentTick) {
+                if (count == fireBuffer.length) {
+                    fireBuffer = Arrays.copyOf(fireBuffer, count * 2);
+                }
+                fireBuffer[count++] = index;
             }
-        }.runTaskLater(plugin, interval * 20L);
-        scheduledTasks.put(playerId, task);
+        }
+        for (int i = 0; i < count; i++) {
+            int index = fireBuffer[i];
+            unlink(index);
+            giveLoot(players.playerAt(index));
+        }
+        delivery.tick();
     }
 
     private void giveLoot(UUID playerId) {
         Player player = Bukkit.getPlayer(playerId);
         if (player == null || !player.isOnline()) {
-            scheduledTasks.remove(playerId);
-            nextDropAt.remove(playerId);
+            cancel(playerId);
             return;
         }
-        if (kits.isEmpty()) {
-            player.sendMessage(ChatColor.RED + "No loot kits are enabled.");
+        if (lootTable.isEmpty()) {
+            chat.tell(player, Messages.NO_KITS);
             return;
         }
 
-        int minItems = plugin.getConfig().getInt("minItemsPerDrop", 1);
-        int maxItems = plugin.getConfig().getInt("maxItemsPerDrop", 3);
-        int itemsToGive = random.nextInt(Math.max(1, maxItems - minItems + 1)) + minItems;
-
-        for (int i = 0; i < itemsToGive; i++) {
-            LootKit kit = selectRandomKit();
-            ItemStack item = kit.randomItem(random).clone();
-            applyRandomEnchantments(item);
-            Map<Integer, ItemStack> overflow = player.getInventory().addItem(item);
-            overflow.values().forEach(left -> player.getWorld().dropItemNaturally(player.getLocation(), left));
+        long start = System.nanoTime();
+        ItemStack[] items = new ItemStack[lootTable.rollItemCount(random)];
+        for (int i = 0; i < items.length; i++) {
+            int index = lootTable.sampleIndex(random);
+            items[i] = variantCache.copy(index, random);
+            plugin.getEventBus().publish(GameEventType.LOOT_DROP, arenaId, playerId, null, lootTable.kitId(index));
         }
-
-        player.sendMessage(ChatColor.GOLD + "You received a loot drop!");
+        delivery.enqueue(playerId, items);
+        rollTime.recordSince(start);
+        dropsCounter.increment();
+        itemsCounter.add(items.length);
         scheduleNextDrop(playerId);
     }
 
     public void cancel(UUID playerId) {
-        BukkitTask task = scheduledTasks.remove(playerId);
-        if (task != null) {
-            task.cancel();
+        delivery.cancel(playerId);
+        int index = players.indexOf(playerId);
+        if (index >= 0 && index < dueTick.length) {
+            unlink(index);
         }
-        nextDropAt.remove(playerId);
     }
 
     public void stopAll() {
-        cancelAllTasks();
-        nextDropAt.clear();
+        clearWheel();
+        delivery.clear();
     }
 
-    private void cancelAllTasks() {
-        for (BukkitTask task : scheduledTasks.values()) {
-            if (task != null) {
-                task.cancel();
-            }
-        }
-        scheduledTasks.clear();
+    private void clearWheel() {
+        Arrays.fill(slotHeads, NONE);
+        Arrays.fill(dueTick, NONE);
     }
 
     public int getSecondsUntilDrop(UUID playerId) {
-        Long time = nextDropAt.get(playerId);
-        if (time == null) {
+        int index = players.indexOf(playerId);
+        if (index < 0 || index >= dueTick.length || dueTick[index] == NONE) {
             return -1;
         }
-        long diff = time - System.currentTimeMillis();
-        return diff <= 0 ? 0 : (int) (diff / 1000L);
+        long diff = dueTick[index] - currentTick;
+        return diff <= 0 ? 0 : (int) (diff / 20L);
     }
 
-    private LootKit selectRandomKit() {
-        int totalWeight = 0;
-        for (LootKit kit : kits) {
-            totalWeight += Math.max(1, rarityWeights.getOrDefault(kit.rarity(), 1));
+    LootDelivery getDelivery() {
+        return delivery;
+    }
+
+    LootTable getTable() {
+        return lootTable;
+    }
+
+    List<LootKit> getKits() {
+        return kits;
+    }
+
+    LootVariantCache getVariantCache() {
+        return variantCache;
+    }
+
+    private void ensureCapacity(int index) {
+        if (index < dueTick.length) {
+            return;
         }
-        int roll = random.nextInt(Math.max(1, totalWeight));
-        for (LootKit kit : kits) {
-            roll -= Math.max(1, rarityWeights.getOrDefault(kit.rarity(), 1));
-            if (roll < 0) {
-                return kit;
-            }
+        int oldLength = dueTick.length;
+        int capacity = Math.max(index + 1, players.capacity());
+        dueTick = Arrays.copyOf(dueTick, capacity);
+        nextInSlot = Arrays.copyOf(nextInSlot, capacity);
+        prevInSlot = Arrays.copyOf(prevInSlot, capacity);
+        Arrays.fill(dueTick, oldLength, capacity, NONE);
+    }
+
+    private void link(int index) {
+        int slot = (int) (dueTick[index] & WHEEL_MASK);
+        int head = slotHeads[slot];
+        nextInSlot[index] = head;
+        prevInSlot[index] = NONE;
+        if (head != NONE) {
+            prevInSlot[head] = index;
         }
-        return kits.get(random.nextInt(kits.size()));
+        slotHeads[slot] = index;
     }
 
-    private List<ItemStack> createSwordKit() {
-        List<ItemStack> items = new ArrayList<>();
+    private void unlink(int index) {
+        if (dueTick[index] == NONE) {
+            return;
+        }
+        int prev = prevInSlot[index];
+        int next = nextInSlot[index];
+        if (prev != NONE) {
+            nextInSlot[prev] = next;
+        } else {
+            slotHeads[(int) (dueTick[index] & WHEEL_MASK)] = next;
+        }
+        if (next != NONE) {
+            prevInSlot[next] = prev;
+        }
+        nextInSlot[index] = NONE;
+        prevInSlot[index] = NONE;
+        dueTick[index] = NONE;
+    }
+
+    private List<LootItem> createItems(Kit kit) {
+        return switch (kit) {
+            case SWORD -> createSwordKit();
+            case MACE -> createMaceKit();
+            case UHC -> createUhcKit();
+            case AXE_SHIELD -> createAxeShieldKit();
+            case SNIPER -> createSniperKit();
+            case FAIRY -> createFairyKit();
+            case MACE_ELYTRA -> createMaceElytraKit();
+        };
+    }
+
+    private List<LootItem> createSwordKit() {
+        List<LootItem> items = new ArrayList<>();
         items.add(createWeapon(Material.NETHERITE_SWORD, Map.of(
                 Enchantment.DAMAGE_ALL, new LevelRange(3, 5),
                 Enchantment.DAMAGE_UNDEAD, new LevelRange(3, 4),
@@ -190,14 +260,14 @@ public class LootManager {
         items.add(createArmor(Material.NETHERITE_CHESTPLATE));
         items.add(createArmor(Material.NETHERITE_LEGGINGS));
         items.add(createBoots(Material.NETHERITE_BOOTS));
-        items.add(new ItemStack(Material.GOLDEN_APPLE, 4));
-        items.add(createPotion(PotionType.STRENGTH, false));
-        items.add(createPotion(PotionType.SPEED, false));
+        items.add(plain(new ItemStack(Material.GOLDEN_APPLE, 4)));
+        items.add(plain(createPotion(PotionType.STRENGTH, false)));
+        items.add(plain(createPotion(PotionType.SPEED, false)));
         return items;
     }
 
-    private List<ItemStack> createMaceKit() {
-        List<ItemStack> items = new ArrayList<>();
+    private List<LootItem> createMaceKit() {
+        List<LootItem> items = new ArrayList<>();
         items.add(createWeapon(Material.MACE, Map.of(
                 Enchantment.DAMAGE_ALL, new LevelRange(4, 5),
                 Enchantment.DURABILITY, new LevelRange(3, 3),
@@ -211,13 +281,13 @@ public class LootManager {
         items.add(createArmor(Material.NETHERITE_CHESTPLATE));
         items.add(createArmor(Material.NETHERITE_LEGGINGS));
         items.add(createArmor(Material.NETHERITE_BOOTS));
-        items.add(new ItemStack(Material.ENDER_PEARL, 2));
-        items.add(createPotion(PotionType.INSTANT_HEAL, true));
+        items.add(plain(new ItemStack(Material.ENDER_PEARL, 2)));
+        items.add(plain(createPotion(PotionType.INSTANT_HEAL, true)));
         return items;
     }
 
-    private List<ItemStack> createUhcKit() {
-        List<ItemStack> items = new ArrayList<>();
+    private List<LootItem> createUhcKit() {
+        List<LootItem> items = new ArrayList<>();
         items.add(createWeapon(Material.DIAMOND_SWORD, Map.of(
                 Enchantment.DAMAGE_ALL, new LevelRange(2, 3),
                 Enchantment.DURABILITY, new LevelRange(3, 3)
@@ -232,33 +302,33 @@ public class LootManager {
                 Enchantment.ARROW_FIRE, new LevelRange(1, 1),
                 Enchantment.DURABILITY, new LevelRange(3, 3)
         )));
-        items.add(new ItemStack(Material.ARROW, 4));
-        items.add(new ItemStack(Material.LAVA_BUCKET));
-        items.add(new ItemStack(Material.WATER_BUCKET));
-        items.add(createPotion(PotionType.REGEN, false));
-        items.add(createPotion(PotionType.INSTANT_HEAL, false));
-        items.add(new ItemStack(Material.GOLDEN_APPLE, 2));
+        items.add(plain(new ItemStack(Material.ARROW, 4)));
+        items.add(plain(new ItemStack(Material.LAVA_BUCKET)));
+        items.add(plain(new ItemStack(Material.WATER_BUCKET)));
+        items.add(plain(createPotion(PotionType.REGEN, false)));
+        items.add(plain(createPotion(PotionType.INSTANT_HEAL, false)));
+        items.add(plain(new ItemStack(Material.GOLDEN_APPLE, 2)));
         return items;
     }
 
-    private List<ItemStack> createAxeShieldKit() {
-        List<ItemStack> items = new ArrayList<>();
+    private List<LootItem> createAxeShieldKit() {
+        List<LootItem> items = new ArrayList<>();
         items.add(createWeapon(Material.NETHERITE_AXE, Map.of(
                 Enchantment.DAMAGE_ALL, new LevelRange(3, 4),
                 Enchantment.DURABILITY, new LevelRange(3, 3),
                 Enchantment.SWEEPING_EDGE, new LevelRange(2, 3)
         )));
-        items.add(applyEnchantments(new ItemStack(Material.SHIELD), Map.of(
+        items.add(withEnchantments(new ItemStack(Material.SHIELD), Map.of(
                 Enchantment.DURABILITY, new LevelRange(3, 3)
         )));
-        items.add(new ItemStack(Material.BREAD, 16));
-        items.add(createPotion(PotionType.STRENGTH, false));
-        items.add(new ItemStack(Material.FIRE_CHARGE, 4));
+        items.add(plain(new ItemStack(Material.BREAD, 16)));
+        items.add(plain(createPotion(PotionType.STRENGTH, false)));
+        items.add(plain(new ItemStack(Material.FIRE_CHARGE, 4)));
         return items;
     }
 
-    private List<ItemStack> createSniperKit() {
-        List<ItemStack> items = new ArrayList<>();
+    private List<LootItem> createSniperKit() {
+        List<LootItem> items = new ArrayList<>();
         items.add(createBow(Map.of(
                 Enchantment.ARROW_DAMAGE, new LevelRange(4, 4),
                 Enchantment.ARROW_INFINITE, new LevelRange(1, 1),
@@ -273,18 +343,18 @@ public class LootManager {
         items.add(createArmor(Material.DIAMOND_CHESTPLATE));
         items.add(createArmor(Material.DIAMOND_LEGGINGS));
         items.add(createArmor(Material.DIAMOND_BOOTS));
-        items.add(new ItemStack(Material.ARROW, 32));
-        items.add(new ItemStack(Material.GOLDEN_APPLE, 2));
+        items.add(plain(new ItemStack(Material.ARROW, 32)));
+        items.add(plain(new ItemStack(Material.GOLDEN_APPLE, 2)));
         return items;
     }
 
-    private List<ItemStack> createFairyKit() {
-        List<ItemStack> items = new ArrayList<>();
-        items.add(applyEnchantments(new ItemStack(Material.ELYTRA), Map.of(
+    private List<LootItem> createFairyKit() {
+        List<LootItem> items = new ArrayList<>();
+        items.add(withEnchantments(new ItemStack(Material.ELYTRA), Map.of(
                 Enchantment.DURABILITY, new LevelRange(3, 3),
                 Enchantment.MENDING, new LevelRange(1, 1)
         )));
-        items.add(new ItemStack(Material.FIREWORK_ROCKET, 12));
+        items.add(plain(new ItemStack(Material.FIREWORK_ROCKET, 12)));
         items.add(createWeapon(Material.DIAMOND_SWORD, Map.of(
                 Enchantment.DAMAGE_ALL, new LevelRange(3, 3),
                 Enchantment.FIRE_ASPECT, new LevelRange(1, 1),
@@ -294,17 +364,17 @@ public class LootManager {
         items.add(createArmor(Material.DIAMOND_CHESTPLATE));
         items.add(createArmor(Material.DIAMOND_LEGGINGS));
         items.add(createBoots(Material.DIAMOND_BOOTS));
-        items.add(createPotion(PotionType.SPEED, false));
+        items.add(plain(createPotion(PotionType.SPEED, false)));
         return items;
     }
 
-    private List<ItemStack> createMaceElytraKit() {
-        List<ItemStack> items = new ArrayList<>();
-        items.add(applyEnchantments(new ItemStack(Material.ELYTRA), Map.of(
+    private List<LootItem> createMaceElytraKit() {
+        List<LootItem> items = new ArrayList<>();
+        items.add(withEnchantments(new ItemStack(Material.ELYTRA), Map.of(
                 Enchantment.DURABILITY, new LevelRange(3, 3),
                 Enchantment.MENDING, new LevelRange(1, 1)
         )));
-        items.add(new ItemStack(Material.FIREWORK_ROCKET, 16));
+        items.add(plain(new ItemStack(Material.FIREWORK_ROCKET, 16)));
         items.add(createWeapon(Material.MACE, Map.of(
                 Enchantment.DENSITY, new LevelRange(5, 5),
                 Enchantment.WIND_BURST, new LevelRange(3, 3),
@@ -315,30 +385,30 @@ public class LootManager {
         items.add(createArmor(Material.NETHERITE_CHESTPLATE));
         items.add(createArmor(Material.NETHERITE_LEGGINGS));
         items.add(createArmor(Material.NETHERITE_BOOTS));
-        items.add(createPotion(PotionType.STRENGTH, false));
+        items.add(plain(createPotion(PotionType.STRENGTH, false)));
         return items;
     }
 
-    private ItemStack createWeapon(Material material, Map<Enchantment, LevelRange> enchants) {
-        return applyEnchantments(new ItemStack(material), enchants);
+    private LootItem createWeapon(Material material, Map<Enchantment, LevelRange> enchants) {
+        return withEnchantments(new ItemStack(material), enchants);
     }
 
-    private ItemStack createArmor(Material material) {
+    private LootItem createArmor(Material material) {
         Map<Enchantment, LevelRange> enchants = new HashMap<>();
         enchants.put(Enchantment.PROTECTION_ENVIRONMENTAL, new LevelRange(3, 4));
         enchants.put(Enchantment.DURABILITY, new LevelRange(3, 3));
         if (material == Material.NETHERITE_BOOTS || material == Material.DIAMOND_BOOTS) {
             enchants.put(Enchantment.PROTECTION_FALL, new LevelRange(4, 4));
         }
-        return applyEnchantments(new ItemStack(material), enchants);
+        return withEnchantments(new ItemStack(material), enchants);
     }
 
-    private ItemStack createBoots(Material material) {
+    private LootItem createBoots(Material material) {
         return createArmor(material);
     }
 
-    private ItemStack createBow(Map<Enchantment, LevelRange> enchants) {
-        return applyEnchantments(new ItemStack(Material.BOW), enchants);
+    private LootItem createBow(Map<Enchantment, LevelRange> enchants) {
+        return withEnchantments(new ItemStack(Material.BOW), enchants);
     }
 
     private ItemStack createPotion(PotionType type, boolean splash) {
@@ -351,37 +421,36 @@ public class LootManager {
         return stack;
     }
 
-    private ItemStack applyEnchantments(ItemStack item, Map<Enchantment, LevelRange> enchantments) {
-        for (Map.Entry<Enchantment, LevelRange> entry : enchantments.entrySet()) {
-            Enchantment enchantment = entry.getKey();
-            LevelRange range = entry.getValue();
-            int level = randomEnchantments ? randomLevel(range) : range.max();
-            if (enchantment != Enchantment.PROTECTION_EXPLOSIONS) {
-                item.addUnsafeEnchantment(enchantment, level);
-            }
-        }
-        return item;
+    private LootItem withEnchantments(ItemStack item, Map<Enchantment, LevelRange> enchantments) {
+        return new LootItem(item, enchantments);
     }
 
-    private int randomLevel(LevelRange range) {
-        if (range.min() == range.max()) {
-            return range.min();
-        }
-        return random.nextInt(range.max() - range.min() + 1) + range.min();
+    private LootItem plain(ItemStack item) {
+        return new LootItem(item, Map.of());
     }
 
-    private record LootKit(String name, LootRarity rarity, List<ItemStack> items) {
-        public ItemStack randomItem(Random random) {
-            return items.get(random.nextInt(items.size()));
+    // The kit's id is stable across config changes (it is written to replay logs), unlike its position in the table
+    record LootKit(Kit kit, List<LootItem> items) {
+
+        int id() {
+            return kit.getId();
+        }
+
+        LootRarity rarity() {
+            return kit.getRarity();
         }
     }
 
-    private enum LootRarity {
+    // Base stack plus the enchantment level ranges it may roll; variants are baked from this
+    record LootItem(ItemStack base, Map<Enchantment, LevelRange> enchantments) {
+    }
+
+    enum LootRarity {
         COMMON,
         UNCOMMON,
         RARE
     }
 
-    private record LevelRange(int min, int max) {
+    record LevelRange(int min, int max) {
     }
 }
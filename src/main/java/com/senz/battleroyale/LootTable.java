@@ -0,0 +1,133 @@
+package com.senz.battleroyale;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Immutable, precompiled loot pool: every kit item is flattened into one alias table so a roll is O(1)
+final class LootTable {
+
+    private final LootManager.LootItem[] items;
+    private final int[] kitIds;
+    private final double[] probability;
+    private final int[] alias;
+    private final int minItems;
+    private final int itemSpread;
+    private final int minInterval;
+    private final int intervalSpread;
+
+    private LootTable(LootManager.LootItem[] items, int[] kitIds, double[] weights,
+                      int minItems, int maxItems, int minInterval, int maxInterval) {
+        this.items = items;
+        this.kitIds = kitIds;
+        this.probability = new double[weights.length];
+        this.alias = new int[weights.length];
+        this.minItems = minItems;
+        this.itemSpread = Math.max(1, maxItems - minItems + 1);
+        this.minInterval = minInterval;
+        this.intervalSpread = Math.max(1, maxInterval - minInterval + 1);
+        buildAlias(weights);
+    }
+
+    static LootTable compile(List<LootManager.LootKit> kits, Map<LootManager.LootRarity, Integer> rarityWeights,
+                             int minItems, int maxItems, int minInterval, int maxInterval) {
+        int itemCount = 0;
+        for (LootManager.LootKit kit : kits) {
+            itemCount += kit.items().size();
+        }
+
+        LootManager.LootItem[] items = new LootManager.LootItem[itemCount];
+        int[] kitIds = new int[itemCount];
+        double[] weights = new double[itemCount];
+        int next = 0;
+        for (LootManager.LootKit kit : kits) {
+            // A kit is picked by rarity weight and then one of its items uniformly, so each item carries weight / size
+            double itemWeight = (double) Math.max(1, rarityWeights.getOrDefault(kit.rarity(), 1)) / kit.items().size();
+            for (LootManager.LootItem item : kit.items()) {
+                items[next] = item;
+                kitIds[next] = kit.id();
+                weights[next] = itemWeight;
+                next++;
+            }
+        }
+        return new LootTable(items, kitIds, weights, minItems, maxItems, minInterval, maxInterval);
+    }
+
+    // Vose's alias method
+    private void buildAlias(double[] weights) {
+        int n = weights.length;
+        if (n == 0) {
+            return;
+        }
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        while (largeCount > 0) {
+            int index = large[--largeCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+        while (smallCount > 0) {
+            int index = small[--smallCount];
+            probability[index] = 1.0;
+            alias[index] = index;
+        }
+    }
+
+    boolean isEmpty() {
+        return items.length == 0;
+    }
+
+    int sampleIndex(Random random) {
+        int column = random.nextInt(items.length);
+        return random.nextDouble() < probability[column] ? column : alias[column];
+    }
+
+    int size() {
+        return items.length;
+    }
+
+    LootManager.LootItem item(int index) {
+        return items[index];
+    }
+
+    int kitId(int index) {
+        return kitIds[index];
+    }
+
+    int rollItemCount(Random random) {
+        return random.nextInt(itemSpread) + minItems;
+    }
+
+    int rollIntervalSeconds(Random random) {
+        return random.nextInt(intervalSpread) + minInterval;
+    }
+}
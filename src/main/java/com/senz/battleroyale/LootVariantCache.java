@@ -0,0 +1,119 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+import org.bukkit.enchantments.Enchantment;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Map;
+import java.util.Random;
+
+// Holds K pre-rolled enchantment variants per loot item so a drop is a copy of a finished stack
+final class LootVariantCache {
+
+    private final BattleRoyalePlugin plugin;
+    // Main thread only; refreshAsync forks a stream off it before leaving, so a fixed randomSeed replays the same loot
+    private final Random random;
+    private volatile Baked baked;
+    private int variantsPerItem = 8;
+    private boolean randomEnchantments = true;
+
+    LootVariantCache(BattleRoyalePlugin plugin) {
+        this.plugin = plugin;
+        this.random = plugin.createRandom();
+    }
+
+    void configure(int variantsPerItem, boolean randomEnchantments) {
+        this.variantsPerItem = Math.max(1, variantsPerItem);
+        this.randomEnchantments = randomEnchantments;
+    }
+
+    void bake(LootTable table) {
+        baked = new Baked(table, build(table, roll(table, variantsPerItem, randomEnchantments, random)));
+    }
+
+    // Re-rolls the levels off the main thread; the stacks are built back on it, since Paper only guarantees server
+    // item conversions there. The swap is dropped if the table was reloaded meanwhile.
+    void refreshAsync(LootTable table) {
+        int count = variantsPerItem;
+        boolean randomize = randomEnchantments;
+        Random rolls = new Random(random.nextLong());
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            int[][][] levels = roll(table, count, randomize, rolls);
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                Baked current = baked;
+                if (current != null && current.table() == table) {
+                    baked = new Baked(table, build(table, levels));
+                }
+            });
+        });
+    }
+
+    ItemStack copy(int index, Random random) {
+        ItemStack[] variants = baked.stacks()[index];
+        return variants[random.nextInt(variants.length)].clone();
+    }
+
+    // levels[item][variant][enchantment], in the item's enchantment order; 0 leaves the enchantment off
+    private static int[][][] roll(LootTable table, int count, boolean randomize, Random random) {
+        int[][][] levels = new int[table.size()][][];
+        for (int i = 0; i < levels.length; i++) {
+            LootManager.LootItem item = table.item(i);
+            // Items without enchantments only ever have one shape
+            int variants = randomize && !item.enchantments().isEmpty() ? count : 1;
+            levels[i] = new int[variants][];
+            for (int v = 0; v < variants; v++) {
+                levels[i][v] = rollVariant(item, randomize, random);
+            }
+        }
+        return levels;
+    }
+
+    private static int[] rollVariant(LootManager.LootItem item, boolean randomize, Random random) {
+        int[] levels = new int[item.enchantments().size()];
+        int e = 0;
+        for (Map.Entry<Enchantment, LootManager.LevelRange> entry : item.enchantments().entrySet()) {
+            if (entry.getKey() != Enchantment.PROTECTION_EXPLOSIONS) {
+                LootManager.LevelRange range = entry.getValue();
+                levels[e] = randomize ? randomLevel(range, random) : range.max();
+            }
+            e++;
+        }
+        return levels;
+    }
+
+    // Main thread
+    private static ItemStack[][] build(LootTable table, int[][][] levels) {
+        ItemStack[][] stacks = new ItemStack[levels.length][];
+        for (int i = 0; i < stacks.length; i++) {
+            LootManager.LootItem item = table.item(i);
+            stacks[i] = new ItemStack[levels[i].length];
+            for (int v = 0; v < stacks[i].length; v++) {
+                stacks[i][v] = buildVariant(item, levels[i][v]);
+            }
+        }
+        return stacks;
+    }
+
+    private static ItemStack buildVariant(LootManager.LootItem item, int[] levels) {
+        ItemStack stack = item.base().clone();
+        int e = 0;
+        for (Enchantment enchantment : item.enchantments().keySet()) {
+            int level = levels[e++];
+            if (level > 0) {
+                stack.addUnsafeEnchantment(enchantment, level);
+            }
+        }
+        // Server-backed stacks copy their components on write, so clone() per drop stays cheap
+        return stack.ensureServerConversions();
+    }
+
+    private static int randomLevel(LootManager.LevelRange range, Random random) {
+        if (range.min() == range.max()) {
+            return range.min();
+        }
+        return random.nextInt(range.max() - range.min() + 1) + range.min();
+    }
+
+    private record Baked(LootTable table, ItemStack[][] stacks) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.senz.battleroyale;
+
+import net.kyori.adventure.audience.Audience;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Hands chat to players off the main thread. Paper's sendMessage only converts the component and queues a packet on
+// the player's connection, so it is safe here; a single thread keeps every player's messages in order, which is why
+// lines meant for one player go through here too instead of being sent directly.
+public class MessageService {
+
+    private final BattleRoyalePlugin plugin;
+    private final ExecutorService sender;
+    private final MetricsRegistry.Counter batches;
+    private final MetricsRegistry.Counter messages;
+
+    public MessageService(BattleRoyalePlugin plugin) {
+        this.plugin = plugin;
+        this.sender = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BattleRoyale-Chat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batches = plugin.getMetrics().counter("br_chat_batches_total", "Chat batches handed to the sender thread");
+        this.messages = plugin.getMetrics().counter("br_chat_messages_total", "Chat lines sent, counted once per batch");
+    }
+
+    // The recipients must be collected on the main thread; the list is not touched there afterwards. Broadcast lines
+    // go to all recipients, lines with their own recipient only to that player.
+    void send(List<Player> recipients, List<Line> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batches.increment();
+        messages.add(batch.size());
+        if (sender.isShutdown()) {
+            deliver(recipients, batch);
+            return;
+        }
+        sender.execute(() -> deliver(recipients, batch));
+    }
+
+    // For players outside any arena; arena players go through their ArenaChat so they stay in order with its batches
+    void tell(Player player, Component message) {
+        send(List.of(), List.of(new Line(player, message)));
+    }
+
+    // Lines already queued, including the last flush of every arena, still go out; only a stuck sender loses them
+    public void shutdown() {
+        sender.shutdown();
+        try {
+            if (!sender.awaitTermination(2, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Chat sender did not finish within 2s; dropping the remaining lines");
+                sender.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            sender.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void deliver(List<Player> recipients, List<Line> batch) {
+        Audience audience = Audience.audience(recipients);
+        for (Line line : batch) {
+            if (line.recipient() != null) {
+                line.recipient().sendMessage(line.message());
+            } else {
+                audience.sendMessage(line.message());
+            }
+        }
+    }
+
+    // A null recipient broadcasts to the whole batch
+    record Line(Player recipient, Component message) {
+    }
+}
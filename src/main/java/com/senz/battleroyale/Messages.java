@@ -0,0 +1,136 @@
+package com.senz.battleroyale;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.JoinConfiguration;
+import net.kyori.adventure.text.format.NamedTextColor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Chat templates, built once. Fixed text is a shared component; a message only allocates the parts that vary.
+final class Messages {
+
+    private static final int MAX_NAMES_LISTED = 5;
+
+    static final Component PREFIX = Component.text("[BattleRoyale] ", NamedTextColor.DARK_PURPLE);
+
+    static final Component ARENAS_BUSY = Component.text("All arenas are busy. You will join the next open lobby.", NamedTextColor.YELLOW);
+    static final Component ROUND_IN_PROGRESS = Component.text("A round is currently in progress. You are spectating.", NamedTextColor.RED);
+    static final Component NOW_SPECTATING = Component.text("You are now spectating.", NamedTextColor.GRAY);
+    static final Component LOOT_RECEIVED = Component.text("You received a loot drop!", NamedTextColor.GOLD);
+    static final Component NO_KITS = Component.text("No loot kits are enabled.", NamedTextColor.RED);
+    static final Component MISSED_ROUND = Component.text("You could not be moved into the arena. You will play the next round.", NamedTextColor.RED);
+    static final Component STUCK_IN_ARENA = Component.text("You could not be moved back to the lobby. Rejoin to return.", NamedTextColor.RED);
+
+    static final Component NOT_ENOUGH_TO_START = prefixed(Component.text("Not enough players to start. Countdown cancelled.", NamedTextColor.RED));
+    static final Component COUNTDOWN_STOPPED = prefixed(Component.text("Countdown stopped: not enough players.", NamedTextColor.RED));
+    static final Component TELEPORTING = prefixed(Component.text("Teleporting players into the arena...", NamedTextColor.YELLOW));
+    static final Component ROUND_STARTED = prefixed(Component.text("Round started! Survive and eliminate your opponents.", NamedTextColor.GREEN));
+    static final Component TIME_LIMIT = prefixed(Component.text("Time limit reached!", NamedTextColor.YELLOW));
+
+    private static final Component JOINED_LOBBY = Component.text(" joined the lobby. (", NamedTextColor.YELLOW);
+    private static final Component CLOSE_PAREN = Component.text(")", NamedTextColor.YELLOW);
+    private static final Component WINS = Component.text(" wins the round!", NamedTextColor.GREEN);
+    private static final Component ELIMINATED_BY = Component.text(" was eliminated by ", NamedTextColor.GRAY);
+    private static final Component EXCLAMATION = Component.text("!", NamedTextColor.GRAY);
+    private static final Component FALLEN = Component.text(" has fallen!", NamedTextColor.GRAY);
+    private static final Component NAME_SEPARATOR = Component.text(", ", NamedTextColor.GRAY);
+
+    private static final NumberedMessage ROUND_STARTING_IN = new NumberedMessage(true,
+            Component.text("Round starting in ", NamedTextColor.GOLD), Component.text(" seconds!", NamedTextColor.GOLD), NamedTextColor.GOLD);
+    private static final NumberedMessage GAME_STARTING_IN = new NumberedMessage(true,
+            Component.text("Game starting in ", NamedTextColor.YELLOW), Component.text("...", NamedTextColor.YELLOW), NamedTextColor.YELLOW);
+    private static final NumberedMessage WAITING_FOR_ARENA = new NumberedMessage(true,
+            Component.text("Waiting for the arena to finish loading (", NamedTextColor.YELLOW), Component.text("%)...", NamedTextColor.YELLOW),
+            NamedTextColor.YELLOW);
+    private static final NumberedMessage PLAYERS_ELIMINATED = new NumberedMessage(false,
+            Component.empty(), Component.text(" players were eliminated: ", NamedTextColor.GRAY), NamedTextColor.RED);
+
+    private Messages() {
+    }
+
+    static Component prefixed(Component message) {
+        return Component.textOfChildren(PREFIX, message);
+    }
+
+    static Component joinedLobby(String name, int queued, int minPlayers) {
+        return Component.textOfChildren(PREFIX, Component.text(name, NamedTextColor.GREEN), JOINED_LOBBY,
+                Component.text(queued + "/" + minPlayers, NamedTextColor.YELLOW), CLOSE_PAREN);
+    }
+
+    static Component roundStartingIn(int seconds) {
+        return ROUND_STARTING_IN.get(seconds);
+    }
+
+    static Component gameStartingIn(int seconds) {
+        return GAME_STARTING_IN.get(seconds);
+    }
+
+    static Component waitingForArena(int percent) {
+        return WAITING_FOR_ARENA.get(percent);
+    }
+
+    static Component wins(String name) {
+        return Component.textOfChildren(PREFIX, Component.text(name, NamedTextColor.GOLD), WINS);
+    }
+
+    static Component eliminatedBy(String victim, String killer) {
+        return Component.textOfChildren(Component.text(victim, NamedTextColor.RED), ELIMINATED_BY,
+                Component.text(killer, NamedTextColor.GOLD), EXCLAMATION);
+    }
+
+    static Component fallen(String victim) {
+        return Component.textOfChildren(Component.text(victim, NamedTextColor.RED), FALLEN);
+    }
+
+    // "12 players were eliminated: A, B, C, D, E and 7 more!"
+    static Component eliminations(List<String> names) {
+        int listed = Math.min(MAX_NAMES_LISTED, names.size());
+        List<Component> parts = new ArrayList<>(listed);
+        for (int i = 0; i < listed; i++) {
+            parts.add(Component.text(names.get(i), NamedTextColor.RED));
+        }
+        Component list = Component.join(JoinConfiguration.separator(NAME_SEPARATOR), parts);
+        Component rest = names.size() > listed
+                ? Component.text(" and " + (names.size() - listed) + " more!", NamedTextColor.GRAY)
+                : EXCLAMATION;
+        return Component.textOfChildren(PLAYERS_ELIMINATED.get(names.size()), list, rest);
+    }
+
+    // "<before><number><after>", kept per number since the same few values come up every round
+    private static final class NumberedMessage {
+        private final boolean prefixed;
+        private final Component before;
+        private final Component after;
+        private final NamedTextColor color;
+        private Component[] values = new Component[64];
+
+        private NumberedMessage(boolean prefixed, Component before, Component after, NamedTextColor color) {
+            this.prefixed = prefixed;
+            this.before = before;
+            this.after = after;
+            this.color = color;
+        }
+
+        private Component get(int value) {
+            if (value < 0) {
+                return build(value);
+            }
+            if (value >= values.length) {
+                values = Arrays.copyOf(values, Math.max(value + 1, values.length * 2));
+            }
+            Component message = values[value];
+            if (message == null) {
+                message = build(value);
+                values[value] = message;
+            }
+            return message;
+        }
+
+        private Component build(int value) {
+            Component message = Component.textOfChildren(before, Component.text(value, color), after);
+            return prefixed ? Messages.prefixed(message) : message;
+        }
+    }
+}
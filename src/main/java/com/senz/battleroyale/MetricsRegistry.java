@@ -0,0 +1,251 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+import java.util.logging.Level;
+
+// Counters, gauges and latency histograms for the plugin's hot paths. Recording is a couple of atomic adds and never
+// allocates; gauges are read on the main thread when the metrics are shown or dumped (Prometheus text format).
+public class MetricsRegistry {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final BattleRoyalePlugin plugin;
+    private final Map<String, Counter> counters = new LinkedHashMap<>();
+    private final Map<String, FunctionCounter> functionCounters = new LinkedHashMap<>();
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, Gauge> gauges = new LinkedHashMap<>();
+    private BukkitTask dumpTask;
+
+    public MetricsRegistry(BattleRoyalePlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    // Registration is idempotent so every arena can ask for the same metric
+    public Counter counter(String name, String help) {
+        return counters.computeIfAbsent(name, key -> new Counter(help));
+    }
+
+    // A running total another subsystem already keeps; exported as a counter, so it must never go down
+    public void counter(String name, String help, LongSupplier total) {
+        functionCounters.put(name, new FunctionCounter(help, total));
+    }
+
+    public Histogram histogram(String name, String help) {
+        return histograms.computeIfAbsent(name, key -> new Histogram(help));
+    }
+
+    public void gauge(String name, String help, DoubleSupplier value) {
+        gauges.put(name, new Gauge(help, value));
+    }
+
+    public Map<String, Counter> getCounters() {
+        return counters;
+    }
+
+    public Map<String, FunctionCounter> getFunctionCounters() {
+        return functionCounters;
+    }
+
+    public Map<String, Histogram> getHistograms() {
+        return histograms;
+    }
+
+    public Map<String, Gauge> getGauges() {
+        return gauges;
+    }
+
+    public void start() {
+        BattleRoyaleConfig.Metrics settings = plugin.getSettings().metrics();
+        long interval = settings.dumpIntervalSeconds() * 20L;
+        if (interval <= 0) {
+            return;
+        }
+        Path file = plugin.getDataFolder().toPath().resolve(settings.file());
+        dumpTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                // Gauges read main-thread state, so the text is built here and only the file write is async
+                String text = toPrometheus();
+                Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> write(file, text));
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+
+    public void shutdown() {
+        if (dumpTask != null) {
+            dumpTask.cancel();
+            dumpTask = null;
+        }
+    }
+
+    public String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            header(out, entry.getKey(), entry.getValue().help, "counter");
+            out.append(entry.getKey()).append(' ').append(entry.getValue().get()).append('\n');
+        }
+        for (Map.Entry<String, FunctionCounter> entry : functionCounters.entrySet()) {
+            header(out, entry.getKey(), entry.getValue().help(), "counter");
+            out.append(entry.getKey()).append(' ').append(entry.getValue().total().getAsLong()).append('\n');
+        }
+        for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+            header(out, entry.getKey(), entry.getValue().help(), "gauge");
+            out.append(entry.getKey()).append(' ').append(format(entry.getValue().value().getAsDouble())).append('\n');
+        }
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            String name = entry.getKey();
+            Histogram histogram = entry.getValue();
+            header(out, name, histogram.help, "summary");
+            for (double quantile : QUANTILES) {
+                out.append(name).append("{quantile=\"").append(quantile).append("\"} ")
+                        .append(format(histogram.quantileNanos(quantile) / 1e9)).append('\n');
+            }
+            out.append(name).append("_sum ").append(format(histogram.getSumNanos() / 1e9)).append('\n');
+            out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private void write(Path file, String text) {
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, text, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to write metrics to " + file, e);
+        }
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.6g", value);
+    }
+
+    public static final class Counter {
+        private final String help;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String help) {
+            this.help = help;
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    public record FunctionCounter(String help, LongSupplier total) {
+    }
+
+    public record Gauge(String help, DoubleSupplier value) {
+    }
+
+    // Log-linear buckets in the spirit of HdrHistogram: 16 linear sub-buckets per power of two, so any recorded
+    // nanosecond value is reported within about 6%. Safe to record from any thread.
+    public static final class Histogram {
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+        private final String help;
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram(String help) {
+            this.help = help;
+        }
+
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public void record(long nanos) {
+            long value = Math.max(0L, nanos);
+            counts.incrementAndGet(bucket(value));
+            count.increment();
+            sum.add(value);
+            long previous = max.get();
+            while (value > previous && !max.compareAndSet(previous, value)) {
+                previous = max.get();
+            }
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getSumNanos() {
+            return sum.sum();
+        }
+
+        public long getMaxNanos() {
+            return max.get();
+        }
+
+        public long quantileNanos(double quantile) {
+            long total = getCount();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1L, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(midpoint(i), getMaxNanos());
+                }
+            }
+            return getMaxNanos();
+        }
+
+        private static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        private static long midpoint(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            int sub = bucket % SUB_BUCKETS;
+            long width = 1L << (exponent - SUB_BUCKET_BITS);
+            return ((long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS)) + width / 2;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.senz.battleroyale;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Main-thread owned membership table: dense indices, flag bitsets and kill counters, with immutable snapshots for other threads
+public class PlayerRegistry {
+
+    private final Map<UUID, Integer> indices = new HashMap<>();
+    private final BitSet queued = new BitSet();
+    private final BitSet alive = new BitSet();
+    private final BitSet spectators = new BitSet();
+    private UUID[] players;
+    private int[] kills;
+    private int[] freeIndices;
+    private int freeCount;
+    private int nextIndex;
+    private int queuedCount;
+    private int aliveCount;
+    private int spectatorCount;
+
+    private boolean modified = true;
+    private volatile Snapshot published = new Snapshot(List.of(), List.of(), List.of(), Map.of());
+
+    public PlayerRegistry(int expectedPlayers) {
+        int capacity = Math.max(16, expectedPlayers);
+        players = new UUID[capacity];
+        kills = new int[capacity];
+        freeIndices = new int[capacity];
+    }
+
+    public int register(UUID playerId) {
+        Integer existing = indices.get(playerId);
+        if (existing != null) {
+            return existing;
+        }
+        int index;
+        if (freeCount > 0) {
+            index = freeIndices[--freeCount];
+        } else {
+            index = nextIndex++;
+            if (index == players.length) {
+                players = Arrays.copyOf(players, index * 2);
+                kills = Arrays.copyOf(kills, index * 2);
+            }
+        }
+        players[index] = playerId;
+        kills[index] = 0;
+        indices.put(playerId, index);
+        modified = true;
+        return index;
+    }
+
+    public void remove(UUID playerId) {
+        Integer index = indices.remove(playerId);
+        if (index == null) {
+            return;
+        }
+        setQueued(index, false);
+        setAlive(index, false);
+        setSpectator(index, false);
+        players[index] = null;
+        kills[index] = 0;
+        if (freeCount == freeIndices.length) {
+            freeIndices = Arrays.copyOf(freeIndices, freeCount * 2);
+        }
+        freeIndices[freeCount++] = index;
+        modified = true;
+    }
+
+    public int indexOf(UUID playerId) {
+        Integer index = indices.get(playerId);
+        return index == null ? -1 : index;
+    }
+
+    public UUID playerAt(int index) {
+        return players[index];
+    }
+
+    // Iterate every registered player with: for (int i = nextPlayer(0); i >= 0; i = nextPlayer(i + 1))
+    public int nextPlayer(int fromIndex) {
+        for (int index = fromIndex; index < nextIndex; index++) {
+            if (players[index] != null) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    public int capacity() {
+        return players.length;
+    }
+
+    public void setQueued(int index, boolean value) {
+        if (queued.get(index) != value) {
+            queued.set(index, value);
+            queuedCount += value ? 1 : -1;
+            modified = true;
+        }
+    }
+
+    public void setAlive(int index, boolean value) {
+        if (alive.get(index) != value) {
+            alive.set(index, value);
+            aliveCount += value ? 1 : -1;
+            modified = true;
+        }
+    }
+
+    public void setSpectator(int index, boolean value) {
+        if (spectators.get(index) != value) {
+            spectators.set(index, value);
+            spectatorCount += value ? 1 : -1;
+            modified = true;
+        }
+    }
+
+    public boolean isQueued(int index) {
+        return queued.get(index);
+    }
+
+    public boolean isAlive(int index) {
+        return alive.get(index);
+    }
+
+    public void clearQueued() {
+        queued.clear();
+        queuedCount = 0;
+        modified = true;
+    }
+
+    public void clearAlive() {
+        alive.clear();
+        aliveCount = 0;
+        modified = true;
+    }
+
+    public void clearSpectators() {
+        spectators.clear();
+        spectatorCount = 0;
+        modified = true;
+    }
+
+    public int nextQueued(int fromIndex) {
+        return queued.nextSetBit(fromIndex);
+    }
+
+    public int nextAlive(int fromIndex) {
+        return alive.nextSetBit(fromIndex);
+    }
+
+    public UUID firstAlive() {
+        int index = alive.nextSetBit(0);
+        return index < 0 ? null : players[index];
+    }
+
+    public int getQueuedCount() {
+        return queuedCount;
+    }
+
+    public int getAliveCount() {
+        return aliveCount;
+    }
+
+    public int getSpectatorCount() {
+        return spectatorCount;
+    }
+
+    public int getKills(UUID playerId) {
+        Integer index = indices.get(playerId);
+        return index == null ? 0 : kills[index];
+    }
+
+    public void addKill(int index) {
+        kills[index]++;
+        modified = true;
+    }
+
+    public void resetKills(int index) {
+        if (kills[index] != 0) {
+            kills[index] = 0;
+            modified = true;
+        }
+    }
+
+    // Rebuilds the published snapshot only when something changed since the last call; main thread only
+    public Snapshot publish() {
+        if (!modified) {
+            return published;
+        }
+        List<UUID> queuedList = new ArrayList<>(queuedCount);
+        List<UUID> aliveList = new ArrayList<>(aliveCount);
+        List<UUID> spectatorList = new ArrayList<>(spectatorCount);
+        Map<UUID, Integer> killMap = new HashMap<>(indices.size() * 2);
+        for (Map.Entry<UUID, Integer> entry : indices.entrySet()) {
+            int index = entry.getValue();
+            UUID playerId = entry.getKey();
+            if (queued.get(index)) {
+                queuedList.add(playerId);
+            }
+            if (alive.get(index)) {
+                aliveList.add(playerId);
+            }
+            if (spectators.get(index)) {
+                spectatorList.add(playerId);
+            }
+            killMap.put(playerId, kills[index]);
+        }
+        published = new Snapshot(Collections.unmodifiableList(queuedList), Collections.unmodifiableList(aliveList),
+                Collections.unmodifiableList(spectatorList), Collections.unmodifiableMap(killMap));
+        modified = false;
+        return published;
+    }
+
+    // Safe to call from any thread
+    public Snapshot getPublished() {
+        return published;
+    }
+
+    public record Snapshot(List<UUID> queued, List<UUID> alive, List<UUID> spectators, Map<UUID, Integer> kills) {
+    }
+}
@@ -0,0 +1,6 @@
+package com.senz.battleroyale;
+
+public record PlayerStats(int wins, int kills, int deaths, int gamesPlayed, long survivedMillis) {
+
+    public static final PlayerStats EMPTY = new PlayerStats(0, 0, 0, 0, 0L);
+}
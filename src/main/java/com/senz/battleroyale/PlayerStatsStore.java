@@ -0,0 +1,283 @@
+package com.senz.battleroyale;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+// Lifetime stats in a local SQLite file (the driver ships with Paper). Fed from the event bus; every profile lookup,
+// update and write happens on one dedicated thread, and changes are written behind in batches.
+public class PlayerStatsStore implements GameEventHandler {
+
+    private static final String UPSERT = "INSERT INTO player_stats (uuid, wins, kills, deaths, games_played, survived_ms) "
+            + "VALUES (?, ?, ?, ?, ?, ?) ON CONFLICT(uuid) DO UPDATE SET wins = excluded.wins, kills = excluded.kills, "
+            + "deaths = excluded.deaths, games_played = excluded.games_played, survived_ms = excluded.survived_ms";
+
+    private final BattleRoyalePlugin plugin;
+    private final File databaseFile;
+    private final ScheduledExecutorService worker;
+    private final int batchSize;
+    private final int cacheSize;
+    // Read side for the main thread; replaced with a fresh record whenever a profile changes
+    private final Map<UUID, PlayerStats> published = new ConcurrentHashMap<>();
+
+    // Worker-thread state
+    private final LinkedHashMap<UUID, Profile> cache;
+    private final Map<UUID, Profile> dirty = new LinkedHashMap<>();
+    private final Map<UUID, RoundEntry> inRound = new HashMap<>();
+    private Connection connection;
+    private volatile long rowsWritten;
+    private volatile long flushes;
+
+    public PlayerStatsStore(BattleRoyalePlugin plugin) {
+        this.plugin = plugin;
+        BattleRoyaleConfig.Stats settings = plugin.getSettings().stats();
+        this.databaseFile = new File(plugin.getDataFolder(), settings.file());
+        this.batchSize = settings.batchSize();
+        this.cacheSize = settings.cacheSize();
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BattleRoyale-Stats");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cache = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Profile> eldest) {
+                if (size() <= cacheSize) {
+                    return false;
+                }
+                // Unsaved changes of an evicted profile go out with the next batch
+                published.remove(eldest.getKey());
+                return true;
+            }
+        };
+    }
+
+    public void start() {
+        long interval = plugin.getSettings().stats().flushIntervalSeconds();
+        worker.execute(this::open);
+        worker.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.SECONDS);
+    }
+
+    // Called after the event bus has drained, so every event is already queued on the worker
+    public void shutdown() {
+        worker.execute(() -> {
+            flush();
+            close();
+        });
+        worker.shutdown();
+        try {
+            if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Stats store did not finish writing within 10s; " + dirty.size() + " profiles may be lost");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Main thread: cached stats, or null while the profile is still loading
+    public PlayerStats getStats(UUID playerId) {
+        return published.get(playerId);
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getFlushes() {
+        return flushes;
+    }
+
+    // Event bus thread: copy what we need out of the slot and hand it to the stats worker
+    @Override
+    public void onEvent(GameEvent event, long sequence, boolean endOfBatch) {
+        GameEventType type = event.getType();
+        if (type == GameEventType.POSITION || type == GameEventType.BORDER || type == GameEventType.LOOT_DROP
+                || type == GameEventType.STATE_CHANGE || type == GameEventType.ROUND_START) {
+            return;
+        }
+        int arenaId = event.getArenaId();
+        long nanoTime = event.getNanoTime();
+        UUID subject = event.subject();
+        UUID other = event.other();
+        worker.execute(() -> apply(type, arenaId, nanoTime, subject, other));
+    }
+
+    private void apply(GameEventType type, int arenaId, long nanoTime, UUID subject, UUID other) {
+        switch (type) {
+            case PLAYER_JOIN -> profile(subject);
+            case PLAYER_ENTER_ROUND -> {
+                inRound.put(subject, new RoundEntry(arenaId, nanoTime));
+                profile(subject).gamesPlayed++;
+                markDirty(subject);
+            }
+            case PLAYER_DEATH -> {
+                Profile victim = profile(subject);
+                victim.deaths++;
+                leaveRound(subject, victim, nanoTime);
+                markDirty(subject);
+                if (other != null) {
+                    profile(other).kills++;
+                    markDirty(other);
+                }
+            }
+            case PLAYER_QUIT -> {
+                RoundEntry entry = inRound.get(subject);
+                if (entry != null) {
+                    leaveRound(subject, profile(subject), nanoTime);
+                    markDirty(subject);
+                }
+            }
+            case ROUND_END -> {
+                if (subject != null) {
+                    profile(subject).wins++;
+                    markDirty(subject);
+                }
+                inRound.entrySet().removeIf(entry -> {
+                    if (entry.getValue().arenaId() != arenaId) {
+                        return false;
+                    }
+                    profile(entry.getKey()).survivedMillis += (nanoTime - entry.getValue().enteredNanos()) / 1_000_000L;
+                    markDirty(entry.getKey());
+                    return true;
+                });
+            }
+            default -> {
+            }
+        }
+        if (dirty.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    private void leaveRound(UUID playerId, Profile profile, long nanoTime) {
+        RoundEntry entry = inRound.remove(playerId);
+        if (entry != null) {
+            profile.survivedMillis += (nanoTime - entry.enteredNanos()) / 1_000_000L;
+        }
+    }
+
+    private Profile profile(UUID playerId) {
+        Profile profile = cache.get(playerId);
+        if (profile == null) {
+            profile = dirty.containsKey(playerId) ? dirty.get(playerId) : load(playerId);
+            cache.put(playerId, profile);
+            published.put(playerId, profile.toStats());
+        }
+        return profile;
+    }
+
+    private void markDirty(UUID playerId) {
+        Profile profile = cache.get(playerId);
+        dirty.put(playerId, profile);
+        published.put(playerId, profile.toStats());
+    }
+
+    private Profile load(UUID playerId) {
+        Profile profile = new Profile();
+        if (connection == null) {
+            return profile;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT wins, kills, deaths, games_played, survived_ms FROM player_stats WHERE uuid = ?")) {
+            statement.setString(1, playerId.toString());
+            try (ResultSet result = statement.executeQuery()) {
+                if (result.next()) {
+                    profile.wins = result.getInt(1);
+                    profile.kills = result.getInt(2);
+                    profile.deaths = result.getInt(3);
+                    profile.gamesPlayed = result.getInt(4);
+                    profile.survivedMillis = result.getLong(5);
+                }
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to load stats for " + playerId, e);
+        }
+        return profile;
+    }
+
+    private void flush() {
+        if (dirty.isEmpty() || connection == null) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT)) {
+            connection.setAutoCommit(false);
+            for (Map.Entry<UUID, Profile> entry : dirty.entrySet()) {
+                Profile profile = entry.getValue();
+                statement.setString(1, entry.getKey().toString());
+                statement.setInt(2, profile.wins);
+                statement.setInt(3, profile.kills);
+                statement.setInt(4, profile.deaths);
+                statement.setInt(5, profile.gamesPlayed);
+                statement.setLong(6, profile.survivedMillis);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+            connection.commit();
+            rowsWritten += dirty.size();
+            flushes++;
+            dirty.clear();
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to write " + dirty.size() + " stats rows; will retry", e);
+            try {
+                connection.rollback();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    private void open() {
+        try {
+            plugin.getDataFolder().mkdirs();
+            connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("PRAGMA journal_mode=WAL");
+                statement.execute("PRAGMA synchronous=NORMAL");
+                statement.execute("CREATE TABLE IF NOT EXISTS player_stats (uuid TEXT PRIMARY KEY, wins INTEGER NOT NULL, "
+                        + "kills INTEGER NOT NULL, deaths INTEGER NOT NULL, games_played INTEGER NOT NULL, survived_ms INTEGER NOT NULL)");
+            }
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to open stats database " + databaseFile + "; stats will not be saved", e);
+            connection = null;
+        }
+    }
+
+    private void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to close stats database", e);
+        }
+        connection = null;
+    }
+
+    private static final class Profile {
+        private int wins;
+        private int kills;
+        private int deaths;
+        private int gamesPlayed;
+        private long survivedMillis;
+
+        private PlayerStats toStats() {
+            return new PlayerStats(wins, kills, deaths, gamesPlayed, survivedMillis);
+        }
+    }
+
+    private record RoundEntry(int arenaId, long enteredNanos) {
+    }
+}
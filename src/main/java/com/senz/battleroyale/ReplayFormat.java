@@ -0,0 +1,26 @@
+package com.senz.battleroyale;
+
+// Layout of a .brlog match file. Kept free of Bukkit types so the reader also runs outside the server.
+//
+// Header: int MAGIC, short VERSION, int arenaId, long startEpochMillis
+// Record: byte tag, int tick (relative to ROUND_START), then the tag's payload. Players are written once as a PLAYER
+// record and referred to by their short id afterwards; -1 means "nobody".
+final class ReplayFormat {
+
+    static final int MAGIC = 0x42524C47; // "BRLG"
+    static final short VERSION = 1;
+    static final String EXTENSION = ".brlog";
+
+    static final byte PLAYER = 1;       // short id, long mostSigBits, long leastSigBits
+    static final byte STATE = 2;        // byte GameState ordinal
+    static final byte ENTER = 3;        // short player
+    static final byte DEATH = 4;        // short victim, short killer
+    static final byte QUIT = 5;         // short player
+    static final byte LOOT = 6;         // short player, short kit id (Kit)
+    static final byte POSITION = 7;     // short player, float x, float y, float z
+    static final byte BORDER = 8;       // float centreX, float centreZ, float size
+    static final byte ROUND_END = 9;    // short winner, short players alive
+
+    private ReplayFormat() {
+    }
+}
@@ -0,0 +1,104 @@
+package com.senz.battleroyale;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+// Streams a .brlog file into a Visitor record by record; nothing but the player table is kept in memory
+public final class ReplayReader {
+
+    public interface Visitor {
+        default void header(int arenaId, long startEpochMillis) {
+        }
+
+        default void state(int tick, int stateOrdinal) {
+        }
+
+        default void enter(int tick, UUID player) {
+        }
+
+        default void death(int tick, UUID victim, UUID killer) {
+        }
+
+        default void quit(int tick, UUID player) {
+        }
+
+        default void loot(int tick, UUID player, int kitId) {
+        }
+
+        default void position(int tick, UUID player, float x, float y, float z) {
+        }
+
+        default void border(int tick, float centerX, float centerZ, float size) {
+        }
+
+        default void roundEnd(int tick, UUID winner, int alive) {
+        }
+    }
+
+    private ReplayReader() {
+    }
+
+    public static void read(Path file, Visitor visitor) throws IOException {
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream, 64 * 1024))) {
+            if (in.readInt() != ReplayFormat.MAGIC) {
+                throw new IOException(file + " is not a replay log");
+            }
+            short version = in.readShort();
+            if (version != ReplayFormat.VERSION) {
+                throw new IOException(file + " has unsupported replay version " + version);
+            }
+            visitor.header(in.readInt(), in.readLong());
+
+            List<UUID> players = new ArrayList<>();
+            while (true) {
+                int tag = in.read();
+                if (tag < 0) {
+                    break;
+                }
+                try {
+                    readRecord((byte) tag, in, players, visitor);
+                } catch (EOFException e) {
+                    // The server stopped mid-write; everything before the torn record is still valid
+                    break;
+                }
+            }
+        }
+    }
+
+    private static void readRecord(byte tag, DataInputStream in, List<UUID> players, Visitor visitor) throws IOException {
+        int tick = in.readInt();
+        switch (tag) {
+            case ReplayFormat.PLAYER -> {
+                int id = in.readShort();
+                UUID player = new UUID(in.readLong(), in.readLong());
+                while (players.size() <= id) {
+                    players.add(null);
+                }
+                players.set(id, player);
+            }
+            case ReplayFormat.STATE -> visitor.state(tick, in.readByte());
+            case ReplayFormat.ENTER -> visitor.enter(tick, player(players, in.readShort()));
+            case ReplayFormat.DEATH -> visitor.death(tick, player(players, in.readShort()), player(players, in.readShort()));
+            case ReplayFormat.QUIT -> visitor.quit(tick, player(players, in.readShort()));
+            case ReplayFormat.LOOT -> visitor.loot(tick, player(players, in.readShort()), in.readShort());
+            case ReplayFormat.POSITION -> visitor.position(tick, player(players, in.readShort()),
+                    in.readFloat(), in.readFloat(), in.readFloat());
+            case ReplayFormat.BORDER -> visitor.border(tick, in.readFloat(), in.readFloat(), in.readFloat());
+            case ReplayFormat.ROUND_END -> visitor.roundEnd(tick, player(players, in.readShort()), in.readShort());
+            default -> throw new IOException("Unknown replay record tag " + tag);
+        }
+    }
+
+    private static UUID player(List<UUID> players, short id) {
+        return id >= 0 && id < players.size() ? players.get(id) : null;
+    }
+}
@@ -0,0 +1,246 @@
+package com.senz.battleroyale;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+
+// Writes one binary log per match (see ReplayFormat). Runs as an event bus handler, so all file work stays on the bus
+// thread; records are staged in pooled direct buffers and written out when a buffer fills or once a second.
+public class ReplayRecorder implements GameEventHandler {
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int MAX_RECORD_BYTES = 32;
+    private static final long FLUSH_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final BattleRoyalePlugin plugin;
+    private final File folder;
+    private final int bufferBytes;
+    private final int keepFiles;
+    private final Map<Integer, MatchWriter> writers = new HashMap<>();
+    private final Deque<ByteBuffer> bufferPool = new ArrayDeque<>();
+
+    private volatile long bytesWritten;
+    private volatile long matchesWritten;
+
+    public ReplayRecorder(BattleRoyalePlugin plugin) {
+        this.plugin = plugin;
+        BattleRoyaleConfig.Replay settings = plugin.getSettings().replay();
+        this.folder = new File(plugin.getDataFolder(), settings.folder());
+        this.bufferBytes = settings.bufferKiB() * 1024;
+        this.keepFiles = settings.keepFiles();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    public long getMatchesWritten() {
+        return matchesWritten;
+    }
+
+    @Override
+    public void onEvent(GameEvent event, long sequence, boolean endOfBatch) throws IOException {
+        int arenaId = event.getArenaId();
+        if (event.getType() == GameEventType.ROUND_START) {
+            close(writers.remove(arenaId));
+            writers.put(arenaId, open(arenaId, event.getTick()));
+        }
+
+        MatchWriter writer = writers.get(arenaId);
+        if (writer != null) {
+            writer.write(event);
+            if (event.getType() == GameEventType.STATE_CHANGE && event.getValue() == GameState.LOBBY.ordinal()) {
+                close(writers.remove(arenaId));
+            }
+        }
+
+        if (endOfBatch) {
+            long now = System.nanoTime();
+            for (MatchWriter open : writers.values()) {
+                if (now - open.lastFlush >= FLUSH_INTERVAL_NANOS) {
+                    open.flush();
+                }
+            }
+        }
+    }
+
+    @Override
+    public void onShutdown() {
+        for (Iterator<MatchWriter> iterator = writers.values().iterator(); iterator.hasNext(); ) {
+            close(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    private MatchWriter open(int arenaId, int startTick) throws IOException {
+        Files.createDirectories(folder.toPath());
+        Path file = folder.toPath().resolve("arena-" + arenaId + "-" + FILE_TIME.format(LocalDateTime.now()) + ReplayFormat.EXTENSION);
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer buffer = bufferPool.isEmpty() ? ByteBuffer.allocateDirect(bufferBytes) : bufferPool.pop();
+        buffer.clear();
+        MatchWriter writer = new MatchWriter(file, channel, buffer, startTick);
+        buffer.putInt(ReplayFormat.MAGIC);
+        buffer.putShort(ReplayFormat.VERSION);
+        buffer.putInt(arenaId);
+        buffer.putLong(System.currentTimeMillis());
+        return writer;
+    }
+
+    private void close(MatchWriter writer) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.flush();
+            writer.channel.close();
+            matchesWritten++;
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to finish replay " + writer.file.getFileName(), e);
+        }
+        bufferPool.push(writer.buffer);
+        pruneOldFiles();
+    }
+
+    private void pruneOldFiles() {
+        if (keepFiles <= 0) {
+            return;
+        }
+        File[] files = folder.listFiles((dir, name) -> name.endsWith(ReplayFormat.EXTENSION));
+        if (files == null || files.length <= keepFiles) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - keepFiles; i++) {
+            if (!files[i].delete()) {
+                plugin.getLogger().warning("Could not delete old replay " + files[i].getName());
+            }
+        }
+    }
+
+    private final class MatchWriter {
+        private final Path file;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private final int startTick;
+        private final Map<UUID, Short> playerIds = new HashMap<>();
+        private long lastFlush = System.nanoTime();
+
+        private MatchWriter(Path file, FileChannel channel, ByteBuffer buffer, int startTick) {
+            this.file = file;
+            this.channel = channel;
+            this.buffer = buffer;
+            this.startTick = startTick;
+        }
+
+        private void write(GameEvent event) throws IOException {
+            switch (event.getType()) {
+                case STATE_CHANGE -> {
+                    header(ReplayFormat.STATE, event);
+                    buffer.put((byte) event.getValue());
+                }
+                case PLAYER_ENTER_ROUND -> {
+                    short player = player(event.subject());
+                    header(ReplayFormat.ENTER, event);
+                    buffer.putShort(player);
+                }
+                case PLAYER_DEATH -> {
+                    short victim = player(event.subject());
+                    short killer = player(event.other());
+                    header(ReplayFormat.DEATH, event);
+                    buffer.putShort(victim);
+                    buffer.putShort(killer);
+                }
+                case PLAYER_QUIT -> {
+                    short player = player(event.subject());
+                    header(ReplayFormat.QUIT, event);
+                    buffer.putShort(player);
+                }
+                case LOOT_DROP -> {
+                    short player = player(event.subject());
+                    header(ReplayFormat.LOOT, event);
+                    buffer.putShort(player);
+                    buffer.putShort((short) event.getValue());
+                }
+                case POSITION -> {
+                    short player = player(event.subject());
+                    header(ReplayFormat.POSITION, event);
+                    buffer.putShort(player);
+                    buffer.putFloat(event.getX());
+                    buffer.putFloat(event.getY());
+                    buffer.putFloat(event.getZ());
+                }
+                case BORDER -> {
+                    header(ReplayFormat.BORDER, event);
+                    buffer.putFloat(event.getX());
+                    buffer.putFloat(event.getZ());
+                    buffer.putFloat(event.getY());
+                }
+                case ROUND_END -> {
+                    short winner = player(event.subject());
+                    header(ReplayFormat.ROUND_END, event);
+                    buffer.putShort(winner);
+                    buffer.putShort((short) event.getValue());
+                }
+                default -> {
+                }
+            }
+        }
+
+        private void header(byte tag, GameEvent event) throws IOException {
+            ensure(MAX_RECORD_BYTES);
+            buffer.put(tag);
+            buffer.putInt(event.getTick() - startTick);
+        }
+
+        // Players get a short id the first time they appear; the PLAYER record always precedes its first use
+        private short player(UUID playerId) throws IOException {
+            if (playerId == null) {
+                return -1;
+            }
+            Short id = playerIds.get(playerId);
+            if (id != null) {
+                return id;
+            }
+            short next = (short) playerIds.size();
+            playerIds.put(playerId, next);
+            ensure(MAX_RECORD_BYTES);
+            buffer.put(ReplayFormat.PLAYER);
+            buffer.putInt(0);
+            buffer.putShort(next);
+            buffer.putLong(playerId.getMostSignificantBits());
+            buffer.putLong(playerId.getLeastSignificantBits());
+            return next;
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                bytesWritten += channel.write(buffer);
+            }
+            buffer.clear();
+            lastFlush = System.nanoTime();
+        }
+    }
+}
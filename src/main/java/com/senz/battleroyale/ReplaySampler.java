@@ -0,0 +1,96 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+// Samples alive players' positions and the border for the replay log. A sweep that runs over the per-tick budget
+// carries on where it stopped on the next tick, so recording never costs a tick more than the budget (plus one player).
+class ReplaySampler {
+
+    private final BattleRoyalePlugin plugin;
+    private final boolean enabled;
+    private final int arenaId;
+    private final GameEventBus events;
+    private int intervalTicks;
+    private long budgetNanos;
+    private final MetricsRegistry.Histogram sampleTime;
+
+    private int cursor = -1;
+    private int nextSweepTick;
+
+    private long sampledTicks;
+    private long totalNanos;
+    private long maxNanos;
+    private long deferred;
+
+    ReplaySampler(BattleRoyalePlugin plugin, int arenaId) {
+        // Follows the recorder rather than the current config, which can be reloaded after startup
+        this.enabled = plugin.getReplayRecorder() != null;
+        this.plugin = plugin;
+        this.arenaId = arenaId;
+        this.events = plugin.getEventBus();
+        this.sampleTime = plugin.getMetrics().histogram("br_replay_sample_seconds", "Replay position sampling per tick");
+    }
+
+    // Called when a round starts; the sampling settings hold for the whole round
+    void reset() {
+        BattleRoyaleConfig.Replay settings = plugin.getSettings().replay();
+        intervalTicks = settings.positionSampleTicks();
+        budgetNanos = settings.sampleBudgetMicros() * 1000L;
+        cursor = -1;
+        nextSweepTick = 0;
+    }
+
+    void tick(PlayerRegistry players, BorderController border) {
+        if (!enabled) {
+            return;
+        }
+        int now = Bukkit.getCurrentTick();
+        long start = System.nanoTime();
+        if (cursor < 0) {
+            if (now < nextSweepTick) {
+                return;
+            }
+            cursor = 0;
+            nextSweepTick = now + intervalTicks;
+            events.publish(GameEventType.BORDER, arenaId, null, null, 0,
+                    (float) border.getCenterX(now), (float) border.getSize(now), (float) border.getCenterZ(now));
+        }
+
+        int index = players.nextAlive(cursor);
+        while (index >= 0) {
+            Player player = Bukkit.getPlayer(players.playerAt(index));
+            if (player != null) {
+                events.publish(GameEventType.POSITION, arenaId, player.getUniqueId(), null, 0,
+                        (float) player.getX(), (float) player.getY(), (float) player.getZ());
+            }
+            cursor = index + 1;
+            if (System.nanoTime() - start > budgetNanos) {
+                deferred++;
+                break;
+            }
+            index = players.nextAlive(cursor);
+        }
+        if (index < 0) {
+            cursor = -1;
+        }
+
+        long elapsed = System.nanoTime() - start;
+        sampledTicks++;
+        totalNanos += elapsed;
+        maxNanos = Math.max(maxNanos, elapsed);
+        sampleTime.record(elapsed);
+    }
+
+    long getAverageMicros() {
+        return sampledTicks == 0 ? 0 : totalNanos / sampledTicks / 1000L;
+    }
+
+    long getMaxMicros() {
+        return maxNanos / 1000L;
+    }
+
+    long getDeferred() {
+        return deferred;
+    }
+}
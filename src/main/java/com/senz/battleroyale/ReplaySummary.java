@@ -0,0 +1,153 @@
+package com.senz.battleroyale;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+// Command-line summariser for replay logs:
+//   java -cp battle-royale.jar com.senz.battleroyale.ReplaySummary plugins/BattleRoyale/replays
+public final class ReplaySummary implements ReplayReader.Visitor {
+
+    private int arenaId;
+    private long startEpochMillis;
+    private int lastTick;
+    private UUID winner;
+    private float finalBorder = -1;
+    private int borderSamples;
+    private int positionSamples;
+    private final Set<UUID> entered = new LinkedHashSet<>();
+    private final Map<UUID, Integer> kills = new HashMap<>();
+    private final List<String> eliminations = new ArrayList<>();
+    private final Map<Integer, Integer> lootByKit = new TreeMap<>();
+    private final Map<UUID, float[]> lastPosition = new HashMap<>();
+    private final Map<UUID, Double> distance = new HashMap<>();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplaySummary <file.brlog | folder> ...");
+            System.exit(1);
+        }
+        for (String arg : args) {
+            Path path = Paths.get(arg);
+            if (Files.isDirectory(path)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(path, "*" + ReplayFormat.EXTENSION)) {
+                    for (Path file : files) {
+                        summarize(file, System.out);
+                    }
+                }
+            } else {
+                summarize(path, System.out);
+            }
+        }
+    }
+
+    public static void summarize(Path file, PrintStream out) throws IOException {
+        ReplaySummary summary = new ReplaySummary();
+        ReplayReader.read(file, summary);
+        summary.print(file, out);
+    }
+
+    @Override
+    public void header(int arenaId, long startEpochMillis) {
+        this.arenaId = arenaId;
+        this.startEpochMillis = startEpochMillis;
+    }
+
+    @Override
+    public void state(int tick, int stateOrdinal) {
+        lastTick = Math.max(lastTick, tick);
+    }
+
+    @Override
+    public void enter(int tick, UUID player) {
+        entered.add(player);
+    }
+
+    @Override
+    public void death(int tick, UUID victim, UUID killer) {
+        lastTick = Math.max(lastTick, tick);
+        if (killer != null) {
+            kills.merge(killer, 1, Integer::sum);
+        }
+        eliminations.add(formatTime(tick) + " " + victim + (killer != null ? " by " + killer : ""));
+    }
+
+    @Override
+    public void loot(int tick, UUID player, int kitId) {
+        lootByKit.merge(kitId, 1, Integer::sum);
+    }
+
+    @Override
+    public void position(int tick, UUID player, float x, float y, float z) {
+        positionSamples++;
+        float[] last = lastPosition.get(player);
+        if (last != null) {
+            double dx = x - last[0];
+            double dz = z - last[2];
+            distance.merge(player, Math.sqrt(dx * dx + dz * dz), Double::sum);
+            last[0] = x;
+            last[1] = y;
+            last[2] = z;
+        } else {
+            lastPosition.put(player, new float[]{x, y, z});
+        }
+    }
+
+    @Override
+    public void border(int tick, float centerX, float centerZ, float size) {
+        borderSamples++;
+        finalBorder = size;
+    }
+
+    @Override
+    public void roundEnd(int tick, UUID winner, int alive) {
+        lastTick = Math.max(lastTick, tick);
+        this.winner = winner;
+    }
+
+    private void print(Path file, PrintStream out) {
+        out.println("== " + file.getFileName() + " (arena " + arenaId + ", started " + Instant.ofEpochMilli(startEpochMillis) + ")");
+        out.println("Duration: " + formatTime(lastTick) + ", players: " + entered.size()
+                + ", winner: " + (winner != null ? winner : "none"));
+        out.println("Final border: " + (finalBorder >= 0 ? Math.round(finalBorder) : "--") + " (" + borderSamples
+                + " border samples, " + positionSamples + " position samples)");
+
+        // Everyone who entered the round, not just those with a kill, so distance is reported for every player
+        out.println("Players:");
+        entered.stream()
+                .sorted(Comparator.comparingInt((UUID player) -> kills.getOrDefault(player, 0)).reversed())
+                .forEach(player -> out.println("  " + player + ": " + kills.getOrDefault(player, 0) + " kills, travelled "
+                        + Math.round(distance.getOrDefault(player, 0.0)) + " blocks"));
+
+        out.println("Eliminations:");
+        for (String elimination : eliminations) {
+            out.println("  " + elimination);
+        }
+
+        out.println("Loot by kit:");
+        for (Map.Entry<Integer, Integer> entry : lootByKit.entrySet()) {
+            Kit kit = Kit.byId(entry.getKey());
+            String name = kit != null ? kit.getDisplayName() : "kit " + entry.getKey();
+            out.println("  " + name + ": " + entry.getValue());
+        }
+        out.println();
+    }
+
+    private static String formatTime(int tick) {
+        int seconds = tick / 20;
+        return String.format("%02d:%02d", seconds / 60, seconds % 60);
+    }
+}
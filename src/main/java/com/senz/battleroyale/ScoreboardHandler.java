@@ -2,44 +2,99 @@ package com.senz.battleroyale;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
-import org.bukkit.WorldBorder;
 import org.bukkit.entity.Player;
 import org.bukkit.scoreboard.DisplaySlot;
 import org.bukkit.scoreboard.Objective;
 import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.ScoreboardManager;
+import org.bukkit.scoreboard.Team;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 public class ScoreboardHandler {
 
-    private final BattleRoyalePlugin plugin;
+    private static final int LINE_COUNT = 8;
+    private static final String FOOTER_SPACER = ChatColor.GRAY.toString();
+    private static final String FOOTER = ChatColor.GRAY + "battle-royale";
+    private static final String NO_TIME = ChatColor.YELLOW + "Time left: --";
+    private static final String NO_BORDER = ChatColor.YELLOW + "Border: --";
+    private static final String NO_LOOT = ChatColor.YELLOW + "Next loot: --";
+
+    private final GameManager gameManager;
+    private final ScoreboardScheduler scheduler;
+    private final Map<UUID, Sidebar> sidebars = new HashMap<>();
+    private final Map<GameState, String> stateLines = new EnumMap<>(GameState.class);
+    private final LineCache countdownLines = new LineCache(ChatColor.YELLOW + "Start in: ", "s");
+    private final LineCache borderLines = new LineCache(ChatColor.YELLOW + "Border: ", "");
+    private final LineCache killLines = new LineCache(ChatColor.YELLOW + "Kills: ", "");
+    private final LineCache lootLines = new LineCache(ChatColor.YELLOW + "Next loot: ", "s");
+    private final String[] lineBuffer = new String[LINE_COUNT];
+    private final String[] sharedLines = new String[4];
+    private GameSnapshot sharedSnapshot;
+
+    private final MetricsRegistry.Counter renders;
+    private final MetricsRegistry.Counter linesSent;
+
+    public ScoreboardHandler(BattleRoyalePlugin plugin, GameManager gameManager) {
+        this.gameManager = gameManager;
+        this.scheduler = new ScoreboardScheduler(gameManager, this);
+        this.renders = plugin.getMetrics().counter("br_scoreboard_renders_total", "Sidebars rebuilt");
+        this.linesSent = plugin.getMetrics().counter("br_scoreboard_lines_sent_total", "Sidebar lines that changed and were sent");
+        for (GameState state : GameState.values()) {
+            stateLines.put(state, ChatColor.YELLOW + "State: " + formatState(state));
+        }
+    }
 
-    public ScoreboardHandler(BattleRoyalePlugin plugin) {
-        this.plugin = plugin;
+    public void stop() {
+        scheduler.clear();
+        sidebars.clear();
     }
 
-    public void updateAll() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            updateFor(player);
-        }
+    public int flush(int budget) {
+        return scheduler.flush(budget);
+    }
+
+    public void markAllDirty() {
+        scheduler.markAllDirty();
     }
 
     public void updateFor(Player player) {
-        Scoreboard scoreboard = createScoreboard(player.getUniqueId());
-        player.setScoreboard(scoreboard);
+        Sidebar sidebar = sidebars.get(player.getUniqueId());
+        if (sidebar == null) {
+            sidebar = createSidebar();
+            sidebars.put(player.getUniqueId(), sidebar);
+        }
+        if (player.getScoreboard() != sidebar.scoreboard) {
+            player.setScoreboard(sidebar.scoreboard);
+        }
+
+        buildLines(player.getUniqueId(), gameManager.getSnapshot(), lineBuffer);
+        for (int i = 0; i < LINE_COUNT; i++) {
+            String line = lineBuffer[i];
+            if (!line.equals(sidebar.lines[i])) {
+                sidebar.teams[i].setPrefix(line);
+                sidebar.lines[i] = line;
+                linesSent.increment();
+            }
+        }
+        renders.increment();
     }
 
     public void reset(Player player) {
+        sidebars.remove(player.getUniqueId());
+        scheduler.forget(player.getUniqueId());
         ScoreboardManager scoreboardManager = Bukkit.getScoreboardManager();
         if (scoreboardManager != null) {
             player.setScoreboard(scoreboardManager.getMainScoreboard());
         }
     }
 
-    private Scoreboard createScoreboard(UUID playerId) {
+    // Each line is a team prefix on a fixed invisible entry, so changing text never re-registers scores
+    private Sidebar createSidebar() {
         ScoreboardManager scoreboardManager = Bukkit.getScoreboardManager();
         if (scoreboardManager == null) {
             throw new IllegalStateException("Scoreboard manager unavailable");
@@ -49,44 +104,50 @@ public class ScoreboardHandler {
         Objective objective = scoreboard.registerNewObjective("battle", "dummy", ChatColor.GOLD + "Battle Royale");
         objective.setDisplaySlot(DisplaySlot.SIDEBAR);
 
-        GameManager gameManager = plugin.getGameManager();
-        List<String> lines = new ArrayList<>();
-
-        lines.add(ChatColor.YELLOW + "State: " + formatState(gameManager.getState()));
-        int playerCount = gameManager.getState() == GameState.RUNNING
-                ? gameManager.getAlivePlayers().size()
-                : gameManager.getQueuedPlayers().size();
-        lines.add(ChatColor.YELLOW + "Players: " + playerCount + "/" + gameManager.getMinPlayers());
-
-        if (gameManager.getState() == GameState.STARTING) {
-            lines.add(ChatColor.YELLOW + "Start in: " + gameManager.getCountdownSeconds() + "s");
-        } else if (gameManager.getState() == GameState.RUNNING) {
-            lines.add(ChatColor.YELLOW + "Time left: " + formatTime(gameManager.getTimeRemaining()));
-        } else {
-            lines.add(ChatColor.YELLOW + "Time left: --");
+        Team[] teams = new Team[LINE_COUNT];
+        ChatColor[] colors = ChatColor.values();
+        for (int i = 0; i < LINE_COUNT; i++) {
+            String entry = colors[i].toString() + ChatColor.RESET;
+            Team team = scoreboard.registerNewTeam("line" + i);
+            team.addEntry(entry);
+            objective.getScore(entry).setScore(LINE_COUNT - i);
+            teams[i] = team;
         }
+        return new Sidebar(scoreboard, teams);
+    }
 
-        double borderSize = 0;
-        if (gameManager.getGameWorld() != null) {
-            WorldBorder border = gameManager.getGameWorld().getWorldBorder();
-            borderSize = border.getSize();
+    private void buildLines(UUID playerId, GameSnapshot snapshot, String[] lines) {
+        if (snapshot != sharedSnapshot) {
+            buildSharedLines(snapshot);
+            sharedSnapshot = snapshot;
         }
-        lines.add(ChatColor.YELLOW + "Border: " + (borderSize > 0 ? (int) borderSize : "--"));
+        System.arraycopy(sharedLines, 0, lines, 0, sharedLines.length);
 
-        int kills = gameManager.getKills().getOrDefault(playerId, 0);
-        lines.add(ChatColor.YELLOW + "Kills: " + kills);
+        lines[4] = killLines.get(gameManager.getPlayers().getKills(playerId));
 
-        int lootTime = plugin.getGameManager().getLootManager().getSecondsUntilDrop(playerId);
-        lines.add(ChatColor.YELLOW + "Next loot: " + (lootTime >= 0 ? lootTime + "s" : "--"));
+        int lootTime = gameManager.getLootManager().getSecondsUntilDrop(playerId);
+        lines[5] = lootTime >= 0 ? lootLines.get(lootTime) : NO_LOOT;
 
-        lines.add(ChatColor.GRAY.toString());
-        lines.add(ChatColor.GRAY + "battle-royale");
+        lines[6] = FOOTER_SPACER;
+        lines[7] = FOOTER;
+    }
 
-        int score = lines.size();
-        for (String line : lines) {
-            objective.getScore(line).setScore(score--);
+    // Lines that are identical for every player are formatted once per snapshot
+    private void buildSharedLines(GameSnapshot snapshot) {
+        GameState state = snapshot.state();
+        sharedLines[0] = stateLines.get(state);
+        sharedLines[1] = ChatColor.YELLOW + "Players: " + snapshot.playerCount() + "/" + snapshot.minPlayers();
+
+        if (state == GameState.STARTING) {
+            sharedLines[2] = countdownLines.get(snapshot.countdownSeconds());
+        } else if (state == GameState.RUNNING) {
+            sharedLines[2] = ChatColor.YELLOW + "Time left: " + formatTime(snapshot.timeRemaining());
+        } else {
+            sharedLines[2] = NO_TIME;
         }
-        return scoreboard;
+
+        double borderSize = snapshot.borderSize();
+        sharedLines[3] = borderSize > 0 ? borderLines.get((int) borderSize) : NO_BORDER;
     }
 
     private String formatState(GameState state) {
@@ -103,4 +164,42 @@ public class ScoreboardHandler {
         int secs = seconds % 60;
         return String.format("%02d:%02d", minutes, secs);
     }
+
+    private static final class Sidebar {
+        private final Scoreboard scoreboard;
+        private final Team[] teams;
+        private final String[] lines = new String[LINE_COUNT];
+
+        private Sidebar(Scoreboard scoreboard, Team[] teams) {
+            this.scoreboard = scoreboard;
+            this.teams = teams;
+        }
+    }
+
+    // Reuses the same String instance for a given value so unchanged lines compare cheaply and allocate nothing
+    private static final class LineCache {
+        private final String prefix;
+        private final String suffix;
+        private String[] values = new String[64];
+
+        private LineCache(String prefix, String suffix) {
+            this.prefix = prefix;
+            this.suffix = suffix;
+        }
+
+        private String get(int value) {
+            if (value < 0) {
+                return prefix + value + suffix;
+            }
+            if (value >= values.length) {
+                values = Arrays.copyOf(values, Math.max(value + 1, values.length * 2));
+            }
+            String line = values[value];
+            if (line == null) {
+                line = prefix + value + suffix;
+                values[value] = line;
+            }
+            return line;
+        }
+    }
 }
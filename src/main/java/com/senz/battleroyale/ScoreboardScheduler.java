@@ -0,0 +1,64 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+public class ScoreboardScheduler {
+
+    private final GameManager gameManager;
+    private final ScoreboardHandler scoreboardHandler;
+    private final Set<UUID> dirty = new LinkedHashSet<>();
+
+    private boolean allDirty;
+
+    public ScoreboardScheduler(GameManager gameManager, ScoreboardHandler scoreboardHandler) {
+        this.gameManager = gameManager;
+        this.scoreboardHandler = scoreboardHandler;
+    }
+
+    public void clear() {
+        dirty.clear();
+        allDirty = false;
+    }
+
+    public void markAllDirty() {
+        allDirty = true;
+    }
+
+    public void forget(UUID playerId) {
+        dirty.remove(playerId);
+    }
+
+    // Renders up to budget dirty players and returns how many were rendered. Players already waiting
+    // keep their place, so a large arena is rendered round-robin across ticks.
+    public int flush(int budget) {
+        if (allDirty) {
+            allDirty = false;
+            PlayerRegistry players = gameManager.getPlayers();
+            for (int index = players.nextPlayer(0); index >= 0; index = players.nextPlayer(index + 1)) {
+                dirty.add(players.playerAt(index));
+            }
+        }
+        if (dirty.isEmpty()) {
+            return 0;
+        }
+
+        int rendered = 0;
+        Iterator<UUID> iterator = dirty.iterator();
+        while (rendered < budget && iterator.hasNext()) {
+            UUID playerId = iterator.next();
+            iterator.remove();
+            Player player = Bukkit.getPlayer(playerId);
+            if (player != null) {
+                scoreboardHandler.updateFor(player);
+                rendered++;
+            }
+        }
+        return rendered;
+    }
+}
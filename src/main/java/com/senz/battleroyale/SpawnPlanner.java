@@ -0,0 +1,176 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// Spreads round spawns over the border with Poisson-disk sampling and checks them against chunk snapshots off-thread
+public class SpawnPlanner {
+
+    private static final int SAMPLE_ATTEMPTS = 30;
+    private static final double EDGE_MARGIN = 8.0;
+    private static final Set<Material> UNSAFE_GROUND = EnumSet.of(
+            Material.LAVA, Material.WATER, Material.MAGMA_BLOCK, Material.CACTUS,
+            Material.FIRE, Material.SOUL_FIRE, Material.POWDER_SNOW, Material.SWEET_BERRY_BUSH);
+
+    private final BattleRoyalePlugin plugin;
+    private final Random random;
+    private final Executor mainThread;
+    private final Executor async;
+
+    public SpawnPlanner(BattleRoyalePlugin plugin) {
+        this.plugin = plugin;
+        this.random = plugin.createRandom();
+        this.mainThread = task -> Bukkit.getScheduler().runTask(plugin, task);
+        this.async = task -> Bukkit.getScheduler().runTaskAsynchronously(plugin, task);
+    }
+
+    // Main thread
+    public CompletableFuture<List<Location>> plan(World world, double borderSize, int count) {
+        double radius = Math.max(1.0, borderSize / 2.0 - EDGE_MARGIN);
+        // Sample extra candidates so unsafe ones can be dropped
+        int candidates = count * 2;
+        Random sampling = new Random(random.nextLong());
+        // Inline planning keeps every step on the main thread in tick order, which reproducible runs need
+        Executor async = plugin.getSettings().asyncSpawnPlanning() ? this.async : Runnable::run;
+        return CompletableFuture.supplyAsync(() -> sample(radius, candidates, sampling), async)
+                .thenComposeAsync(points -> snapshotChunks(world, points)
+                        .thenApply(snapshots -> new Sampled(points, snapshots)), mainThread)
+                .thenApplyAsync(sampled -> pickSafe(world, sampled, count), async);
+    }
+
+    // Bridson's algorithm over a disc centred on 0,0
+    private List<double[]> sample(double radius, int target, Random random) {
+        double minDistance = Math.max(4.0, Math.sqrt(Math.PI * radius * radius * 0.6 / Math.max(1, target)));
+        double cellSize = minDistance / Math.sqrt(2);
+        int gridSize = (int) Math.ceil(radius * 2 / cellSize) + 1;
+        int[] grid = new int[gridSize * gridSize];
+        Arrays.fill(grid, -1);
+
+        List<double[]> points = new ArrayList<>();
+        List<Integer> active = new ArrayList<>();
+        double[] first = {0, 0};
+        points.add(first);
+        active.add(0);
+        grid[cell(first, radius, cellSize, gridSize)] = 0;
+
+        while (!active.isEmpty()) {
+            int activeSlot = random.nextInt(active.size());
+            double[] origin = points.get(active.get(activeSlot));
+            boolean placed = false;
+            for (int attempt = 0; attempt < SAMPLE_ATTEMPTS; attempt++) {
+                double angle = random.nextDouble() * Math.PI * 2;
+                double distance = minDistance * (1 + random.nextDouble());
+                double[] candidate = {origin[0] + Math.cos(angle) * distance, origin[1] + Math.sin(angle) * distance};
+                if (candidate[0] * candidate[0] + candidate[1] * candidate[1] > radius * radius) {
+                    continue;
+                }
+                if (isFarEnough(candidate, points, grid, radius, cellSize, gridSize, minDistance)) {
+                    grid[cell(candidate, radius, cellSize, gridSize)] = points.size();
+                    active.add(points.size());
+                    points.add(candidate);
+                    placed = true;
+                    break;
+                }
+            }
+            if (!placed) {
+                active.remove(activeSlot);
+            }
+        }
+
+        Collections.shuffle(points, random);
+        return points.size() > target ? new ArrayList<>(points.subList(0, target)) : points;
+    }
+
+    private boolean isFarEnough(double[] candidate, List<double[]> points, int[] grid, double radius,
+                                double cellSize, int gridSize, double minDistance) {
+        int cx = (int) ((candidate[0] + radius) / cellSize);
+        int cz = (int) ((candidate[1] + radius) / cellSize);
+        for (int x = Math.max(0, cx - 2); x <= Math.min(gridSize - 1, cx + 2); x++) {
+            for (int z = Math.max(0, cz - 2); z <= Math.min(gridSize - 1, cz + 2); z++) {
+                int index = grid[x * gridSize + z];
+                if (index < 0) {
+                    continue;
+                }
+                double[] other = points.get(index);
+                double dx = other[0] - candidate[0];
+                double dz = other[1] - candidate[1];
+                if (dx * dx + dz * dz < minDistance * minDistance) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private int cell(double[] point, double radius, double cellSize, int gridSize) {
+        int x = (int) ((point[0] + radius) / cellSize);
+        int z = (int) ((point[1] + radius) / cellSize);
+        return x * gridSize + z;
+    }
+
+    // Main thread: load (usually already warm) chunks and take heightmap snapshots of them
+    private CompletableFuture<Map<Long, ChunkSnapshot>> snapshotChunks(World world, List<double[]> points) {
+        Map<Long, CompletableFuture<Chunk>> loads = new HashMap<>();
+        for (double[] point : points) {
+            int chunkX = (int) Math.floor(point[0]) >> 4;
+            int chunkZ = (int) Math.floor(point[1]) >> 4;
+            loads.computeIfAbsent(chunkKey(chunkX, chunkZ), key -> world.getChunkAtAsync(chunkX, chunkZ, true));
+        }
+        return CompletableFuture.allOf(loads.values().toArray(new CompletableFuture[0])).thenApplyAsync(ignored -> {
+            Map<Long, ChunkSnapshot> snapshots = new HashMap<>();
+            for (Map.Entry<Long, CompletableFuture<Chunk>> entry : loads.entrySet()) {
+                snapshots.put(entry.getKey(), entry.getValue().join().getChunkSnapshot(true, false, false));
+            }
+            return snapshots;
+        }, mainThread);
+    }
+
+    private List<Location> pickSafe(World world, Sampled sampled, int count) {
+        List<Location> spawns = new ArrayList<>(count);
+        int minHeight = world.getMinHeight();
+        for (double[] point : sampled.points()) {
+            if (spawns.size() == count) {
+                break;
+            }
+            int blockX = (int) Math.floor(point[0]);
+            int blockZ = (int) Math.floor(point[1]);
+            ChunkSnapshot snapshot = sampled.snapshots().get(chunkKey(blockX >> 4, blockZ >> 4));
+            if (snapshot == null) {
+                continue;
+            }
+            int y = snapshot.getHighestBlockYAt(blockX & 15, blockZ & 15);
+            if (y <= minHeight) {
+                continue;
+            }
+            Material ground = snapshot.getBlockType(blockX & 15, y, blockZ & 15);
+            if (UNSAFE_GROUND.contains(ground) || ground.isAir()) {
+                continue;
+            }
+            spawns.add(new Location(world, blockX + 0.5, y + 1, blockZ + 0.5));
+        }
+        return spawns;
+    }
+
+    private static long chunkKey(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private record Sampled(List<double[]> points, Map<Long, ChunkSnapshot> snapshots) {
+    }
+}
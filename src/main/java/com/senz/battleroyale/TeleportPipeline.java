@@ -0,0 +1,163 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+// Spreads teleports over several ticks so a full lobby isn't moved (and its chunks sent) in a single one.
+// Game mode changes for players that landed are applied together at the start of the next tick. A failed async
+// teleport is retried once synchronously on the next tick; only if that fails too does the request complete false.
+// Every request belongs to the generation it was submitted in; clear() starts a new one, so an async teleport that
+// completes after its round was torn down no longer changes anyone's game mode.
+class TeleportPipeline {
+
+    private final Deque<Request> queue = new ArrayDeque<>();
+    private final List<Request> landed = new ArrayList<>();
+    private final List<Request> retries = new ArrayList<>();
+    // Sent with teleportAsync and not completed yet; insertion order keeps the timeout fallback deterministic
+    private final Set<Request> inFlight = new LinkedHashSet<>();
+    private int teleportsPerTick;
+    private int generation;
+
+    private long teleported;
+    private long failed;
+    private int peakQueue;
+
+    TeleportPipeline(int teleportsPerTick) {
+        setTeleportsPerTick(teleportsPerTick);
+    }
+
+    void setTeleportsPerTick(int teleportsPerTick) {
+        this.teleportsPerTick = Math.max(1, teleportsPerTick);
+    }
+
+    CompletableFuture<Boolean> submit(UUID playerId, Location target, GameMode gameMode) {
+        Request request = new Request(playerId, target, gameMode, generation, new CompletableFuture<>());
+        queue.addLast(request);
+        peakQueue = Math.max(peakQueue, queue.size());
+        return request.done();
+    }
+
+    void tick() {
+        retryFailed();
+        applyLanded();
+        for (int sent = 0; sent < teleportsPerTick && !queue.isEmpty(); sent++) {
+            Request request = queue.pollFirst();
+            Player player = Bukkit.getPlayer(request.playerId());
+            if (player == null) {
+                request.done().complete(false);
+                continue;
+            }
+            inFlight.add(request);
+            player.teleportAsync(request.target()).whenComplete((success, error) -> {
+                // Already completed by the timeout fallback, or its round was cleared
+                if (request.generation() != generation || !inFlight.remove(request)) {
+                    return;
+                }
+                if (error != null || !Boolean.TRUE.equals(success)) {
+                    retries.add(request);
+                    return;
+                }
+                landed.add(request);
+            });
+        }
+    }
+
+    // Timeout fallback: everything still outstanding, whether queued or sent and not yet landed, is moved right now
+    // with plain synchronous teleports; late async completions are ignored
+    void drainSynchronously() {
+        retryFailed();
+        applyLanded();
+        List<Request> outstanding = new ArrayList<>(inFlight);
+        inFlight.clear();
+        outstanding.addAll(queue);
+        queue.clear();
+        for (Request request : outstanding) {
+            Player player = Bukkit.getPlayer(request.playerId());
+            if (player == null || !player.teleport(request.target())) {
+                failed++;
+                request.done().complete(false);
+                continue;
+            }
+            landed.add(request);
+        }
+        applyLanded();
+    }
+
+    // Fails everything not applied yet, including landings whose game mode change is still waiting for the next tick
+    void clear() {
+        generation++;
+        completeAll(queue);
+        completeAll(inFlight);
+        completeAll(retries);
+        completeAll(landed);
+    }
+
+    int getPending() {
+        return queue.size() + inFlight.size() + retries.size();
+    }
+
+    int getPeakQueue() {
+        return peakQueue;
+    }
+
+    long getTeleported() {
+        return teleported;
+    }
+
+    long getFailed() {
+        return failed;
+    }
+
+    private static void completeAll(Collection<Request> requests) {
+        for (Request request : requests) {
+            request.done().complete(false);
+        }
+        requests.clear();
+    }
+
+    private void retryFailed() {
+        if (retries.isEmpty()) {
+            return;
+        }
+        for (Request request : retries) {
+            Player player = Bukkit.getPlayer(request.playerId());
+            if (player != null && player.teleport(request.target())) {
+                landed.add(request);
+                continue;
+            }
+            failed++;
+            request.done().complete(false);
+        }
+        retries.clear();
+    }
+
+    private void applyLanded() {
+        if (landed.isEmpty()) {
+            return;
+        }
+        for (Request request : landed) {
+            Player player = Bukkit.getPlayer(request.playerId());
+            if (player != null && request.gameMode() != null) {
+                player.setGameMode(request.gameMode());
+            }
+            teleported++;
+            request.done().complete(player != null);
+        }
+        landed.clear();
+    }
+
+    private record Request(UUID playerId, Location target, GameMode gameMode, int generation, CompletableFuture<Boolean> done) {
+    }
+}
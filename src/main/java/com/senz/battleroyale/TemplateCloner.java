@@ -0,0 +1,282 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+public class TemplateCloner {
+
+    private static final String[] REGION_FOLDERS = {"region", "entities", "poi"};
+    private static final Pattern REGION_FILE = Pattern.compile("r\\.(-?\\d+)\\.(-?\\d+)\\.mca");
+    private static final Pattern OVERSIZED_CHUNK_FILE = Pattern.compile("c\\.(-?\\d+)\\.(-?\\d+)\\.mcc");
+    private static final int SECTOR_BYTES = 4096;
+    private static final int CHUNKS_PER_REGION = 1024;
+
+    private final BattleRoyalePlugin plugin;
+    private final Path snapshotFolder;
+    private final Executor executor;
+    private final MetricsRegistry.Histogram cloneTime;
+    // Main thread; the snapshot is cut for this template and border size
+    private BattleRoyaleConfig.Template settings;
+    private double borderSize;
+    private int minChunk;
+    private int maxChunk;
+    private CompletableFuture<Void> snapshot;
+
+    public TemplateCloner(BattleRoyalePlugin plugin, Executor executor) {
+        this.plugin = plugin;
+        this.executor = executor;
+        this.settings = plugin.getSettings().template();
+        this.borderSize = plugin.getSettings().borderSize();
+        this.snapshotFolder = plugin.getDataFolder().toPath().resolve("template-snapshot");
+        this.cloneTime = plugin.getMetrics().histogram("br_template_clone_seconds", "Copying the template map into a new world");
+    }
+
+    public boolean isEnabled() {
+        return settings.enabled();
+    }
+
+    // Cuts the snapshot on a worker thread at startup so the first round doesn't pay for it on the main thread
+    public void prepare() {
+        if (settings.enabled() && snapshot == null) {
+            snapshot = cut(CompletableFuture.completedFuture(null));
+        }
+    }
+
+    // Returns whether the snapshot was thrown away: a different template or border size needs a new one. It is cut
+    // after the old one finishes so the two never write the folder at once; worlds created meanwhile are generated.
+    public boolean applySettings(BattleRoyaleConfig next) {
+        BattleRoyaleConfig.Template template = next.template();
+        boolean stale = template.enabled() != settings.enabled() || !template.world().equals(settings.world())
+                || next.borderSize() != borderSize;
+        settings = template;
+        borderSize = next.borderSize();
+        if (!stale) {
+            return false;
+        }
+        CompletableFuture<Void> previous = snapshot != null ? snapshot.exceptionally(error -> null)
+                : CompletableFuture.completedFuture(null);
+        // While disabled the old cut is kept, so enabling the template again still queues behind it
+        snapshot = settings.enabled() ? cut(previous) : previous;
+        return true;
+    }
+
+    private CompletableFuture<Void> cut(CompletableFuture<Void> previous) {
+        String templateName = settings.world();
+        double radius = borderSize / 2.0;
+        CompletableFuture<Void> future = previous.thenRunAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                snapshot(templateName, radius);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to snapshot template world " + templateName, e);
+            }
+            plugin.getLogger().info("Snapshotted template " + templateName + " in "
+                    + ((System.nanoTime() - start) / 1_000_000L) + "ms");
+        }, executor);
+        future.whenComplete((ignored, error) -> {
+            if (error != null) {
+                plugin.getLogger().warning(error.getCause() != null ? error.getCause().getMessage() : error.getMessage());
+            }
+        });
+        return future;
+    }
+
+    // Main thread. Nothing here waits for the snapshot: a world is only cloned once it is ready
+    public boolean isReady() {
+        prepare();
+        return snapshot != null && snapshot.isDone() && !snapshot.isCompletedExceptionally();
+    }
+
+    public boolean isCutting() {
+        return settings.enabled() && snapshot != null && !snapshot.isDone();
+    }
+
+    public void cloneInto(File worldFolder) {
+        long start = System.nanoTime();
+        if (!isReady()) {
+            throw new IllegalStateException("Template snapshot of " + settings.world() + " is not ready");
+        }
+        try {
+            for (String folder : REGION_FOLDERS) {
+                Path source = snapshotFolder.resolve(folder);
+                if (!Files.isDirectory(source)) {
+                    continue;
+                }
+                Path target = worldFolder.toPath().resolve(folder);
+                Files.createDirectories(target);
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(source)) {
+                    for (Path file : files) {
+                        linkOrCopy(file, target.resolve(file.getFileName()));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to clone template world " + settings.world(), e);
+        }
+        cloneTime.recordSince(start);
+        plugin.getLogger().info("Cloned template " + settings.world() + " into " + worldFolder.getName()
+                + " in " + ((System.nanoTime() - start) / 1_000_000L) + "ms");
+    }
+
+    // Copies only the chunks inside the initial border out of the template, once per server start or template change
+    private void snapshot(String templateName, double radius) throws IOException {
+        Path template = new File(Bukkit.getWorldContainer(), templateName).toPath();
+        if (!Files.isDirectory(template.resolve("region"))) {
+            throw new IOException("Template world has no region folder: " + template);
+        }
+
+        int radiusChunks = (int) Math.ceil(radius / 16.0) + 1;
+        minChunk = -radiusChunks;
+        maxChunk = radiusChunks - 1;
+
+        deleteSnapshot();
+        for (String folder : REGION_FOLDERS) {
+            Path source = template.resolve(folder);
+            if (!Files.isDirectory(source)) {
+                continue;
+            }
+            Path target = snapshotFolder.resolve(folder);
+            Files.createDirectories(target);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(source)) {
+                for (Path file : files) {
+                    snapshotFile(file, target);
+                }
+            }
+        }
+    }
+
+    private void snapshotFile(Path file, Path targetFolder) throws IOException {
+        String name = file.getFileName().toString();
+        Matcher region = REGION_FILE.matcher(name);
+        if (region.matches()) {
+            int regionX = Integer.parseInt(region.group(1));
+            int regionZ = Integer.parseInt(region.group(2));
+            int fromX = Math.max(minChunk, regionX << 5);
+            int toX = Math.min(maxChunk, (regionX << 5) + 31);
+            int fromZ = Math.max(minChunk, regionZ << 5);
+            int toZ = Math.min(maxChunk, (regionZ << 5) + 31);
+            if (fromX > toX || fromZ > toZ) {
+                return;
+            }
+            if (toX - fromX == 31 && toZ - fromZ == 31) {
+                Files.copy(file, targetFolder.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                copyChunks(file, targetFolder.resolve(name), fromX & 31, toX & 31, fromZ & 31, toZ & 31);
+            }
+            return;
+        }
+
+        Matcher oversized = OVERSIZED_CHUNK_FILE.matcher(name);
+        if (oversized.matches()) {
+            int chunkX = Integer.parseInt(oversized.group(1));
+            int chunkZ = Integer.parseInt(oversized.group(2));
+            if (chunkX >= minChunk && chunkX <= maxChunk && chunkZ >= minChunk && chunkZ <= maxChunk) {
+                Files.copy(file, targetFolder.resolve(name), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    // Rewrites a region file keeping only the chunks in [fromX..toX] x [fromZ..toZ] (local region coordinates)
+    private void copyChunks(Path source, Path target, int fromX, int toX, int fromZ, int toZ) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (in.size() < SECTOR_BYTES * 2L) {
+                return;
+            }
+            ByteBuffer header = ByteBuffer.allocate(SECTOR_BYTES * 2);
+            while (header.hasRemaining()) {
+                in.read(header, header.position());
+            }
+
+            ByteBuffer newHeader = ByteBuffer.allocate(SECTOR_BYTES * 2);
+            long inSize = in.size();
+            int nextSector = 2;
+            int skipped = 0;
+            for (int z = fromZ; z <= toZ; z++) {
+                for (int x = fromX; x <= toX; x++) {
+                    int index = x + z * 32;
+                    int location = header.getInt(index * 4);
+                    int sectorOffset = location >>> 8;
+                    int sectorCount = location & 0xFF;
+                    if (sectorOffset < 2 || sectorCount == 0) {
+                        continue;
+                    }
+                    long position = (long) sectorOffset * SECTOR_BYTES;
+                    long length = (long) sectorCount * SECTOR_BYTES;
+                    // A header pointing past the end of the file would leave the clone referencing sectors never written
+                    if (position + length > inSize) {
+                        skipped++;
+                        continue;
+                    }
+                    long outPosition = (long) nextSector * SECTOR_BYTES;
+                    long copied = 0;
+                    while (copied < length) {
+                        long transferred = in.transferTo(position + copied, length - copied, out.position(outPosition + copied));
+                        if (transferred <= 0) {
+                            break;
+                        }
+                        copied += transferred;
+                    }
+                    if (copied < length) {
+                        // The sectors written so far are unreferenced and get overwritten by the next chunk
+                        skipped++;
+                        continue;
+                    }
+                    newHeader.putInt(index * 4, (nextSector << 8) | sectorCount);
+                    newHeader.putInt(CHUNKS_PER_REGION * 4 + index * 4, header.getInt(CHUNKS_PER_REGION * 4 + index * 4));
+                    nextSector += sectorCount;
+                }
+            }
+            if (skipped > 0) {
+                plugin.getLogger().warning("Template region " + source.getFileName() + " has " + skipped
+                        + " chunks outside the file; left out of the snapshot");
+            }
+
+            while (newHeader.hasRemaining()) {
+                out.write(newHeader, newHeader.position());
+            }
+        }
+    }
+
+    private void linkOrCopy(Path source, Path target) throws IOException {
+        if (settings.hardLinks()) {
+            try {
+                Files.createLink(target, source);
+                return;
+            } catch (UnsupportedOperationException | IOException e) {
+                plugin.getLogger().warning("Hard link failed for " + source.getFileName() + ", copying instead: " + e.getMessage());
+            }
+        }
+        Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private void deleteSnapshot() throws IOException {
+        if (!Files.exists(snapshotFolder)) {
+            return;
+        }
+        // Deepest paths first; a file that can't be deleted fails the snapshot rather than leaking into the next cut
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(snapshotFolder)) {
+            paths = walk.sorted(Comparator.reverseOrder()).toList();
+        }
+        for (Path path : paths) {
+            Files.delete(path);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+// Deletes battle world folders on a small dedicated pool and reclaims folders leaked by a crash
+public class WorldDeletionService {
+
+    private static final Pattern BATTLE_FOLDER = Pattern.compile("battle_[0-9a-f]{8}(_nether)?");
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long RETRY_DELAY_MILLIS = 100L;
+
+    private final BattleRoyalePlugin plugin;
+    private final ScheduledExecutorService executor;
+
+    private final AtomicLong foldersDeleted = new AtomicLong();
+    private final AtomicLong bytesDeleted = new AtomicLong();
+    private final AtomicLong deleteNanos = new AtomicLong();
+    private final MetricsRegistry.Histogram deleteTime;
+
+    public WorldDeletionService(BattleRoyalePlugin plugin) {
+        this.plugin = plugin;
+        this.deleteTime = plugin.getMetrics().histogram("br_world_delete_seconds", "Deleting one world folder (worker threads)");
+        int threads = plugin.getSettings().worldDeletionThreads();
+        AtomicInteger threadId = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "BattleRoyale-WorldDeletion-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public CompletableFuture<Long> delete(File folder) {
+        return CompletableFuture.supplyAsync(() -> scan(folder.toPath()), executor)
+                .thenCompose(scan -> {
+                    if (scan == null) {
+                        return CompletableFuture.completedFuture(0L);
+                    }
+                    long start = System.nanoTime();
+                    List<CompletableFuture<Void>> deletions = new ArrayList<>(scan.files().size());
+                    for (Path file : scan.files()) {
+                        deletions.add(deleteWithRetry(file));
+                    }
+                    CompletableFuture<Void> done = CompletableFuture.allOf(deletions.toArray(new CompletableFuture[0]));
+                    // Directories were recorded post-order, so children are always removed first
+                    for (Path directory : scan.directories()) {
+                        done = done.thenCompose(ignored -> deleteWithRetry(directory));
+                    }
+                    return done.thenApply(ignored -> {
+                        record(folder, scan, System.nanoTime() - start);
+                        return scan.bytes();
+                    });
+                });
+    }
+
+    // Finds battle folders left behind by a crash or an unclean shutdown and deletes them in the background
+    public void sweepOrphans() {
+        File[] candidates = Bukkit.getWorldContainer().listFiles(file -> file.isDirectory()
+                && BATTLE_FOLDER.matcher(file.getName()).matches()
+                && Bukkit.getWorld(file.getName()) == null);
+        if (candidates == null || candidates.length == 0) {
+            return;
+        }
+
+        List<CompletableFuture<Long>> sweeps = new ArrayList<>(candidates.length);
+        for (File folder : candidates) {
+            sweeps.add(delete(folder));
+        }
+        CompletableFuture.allOf(sweeps.toArray(new CompletableFuture[0])).whenComplete((ignored, error) -> {
+            long reclaimed = 0;
+            for (CompletableFuture<Long> sweep : sweeps) {
+                reclaimed += sweep.getNow(0L);
+            }
+            plugin.getLogger().info("Reclaimed " + candidates.length + " orphaned battle world folders ("
+                    + (reclaimed / (1024L * 1024L)) + " MB)");
+        });
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("World deletion still running at shutdown; leftovers will be swept on next start");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    // Shared with other background file work (template snapshots) so the plugin keeps one pool of IO threads
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    public long getFoldersDeleted() {
+        return foldersDeleted.get();
+    }
+
+    public long getBytesDeleted() {
+        return bytesDeleted.get();
+    }
+
+    public double getThroughputMbPerSecond() {
+        long nanos = deleteNanos.get();
+        return nanos == 0 ? 0 : (bytesDeleted.get() / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    }
+
+    private Scan scan(Path root) {
+        if (!Files.exists(root)) {
+            return null;
+        }
+        List<Path> files = new ArrayList<>();
+        List<Path> directories = new ArrayList<>();
+        long[] bytes = new long[1];
+        try {
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    files.add(file);
+                    bytes[0] += attributes.size();
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    files.add(file);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(Path directory, IOException e) {
+                    directories.add(directory);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to scan world folder " + root.getFileName() + ": " + e.getMessage());
+        }
+        return new Scan(files, directories, bytes[0]);
+    }
+
+    // Completes once the path is gone or the attempts ran out; never fails
+    private CompletableFuture<Void> deleteWithRetry(Path path) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        try {
+            executor.execute(() -> attemptDelete(path, 1, done));
+        } catch (RejectedExecutionException e) {
+            // Shutting down: whatever is left gets swept on the next start
+            done.complete(null);
+        }
+        return done;
+    }
+
+    // Retries are scheduled instead of slept, so a locked file never holds a pool thread that template snapshots and
+    // other deletions are waiting for
+    private void attemptDelete(Path path, int attempt, CompletableFuture<Void> done) {
+        try {
+            Files.deleteIfExists(path);
+            done.complete(null);
+        } catch (NoSuchFileException e) {
+            done.complete(null);
+        } catch (IOException e) {
+            if (attempt == MAX_ATTEMPTS) {
+                plugin.getLogger().warning("Failed to delete " + path + " after " + MAX_ATTEMPTS + " attempts: " + e.getMessage());
+                done.complete(null);
+                return;
+            }
+            try {
+                executor.schedule(() -> attemptDelete(path, attempt + 1, done), RETRY_DELAY_MILLIS * attempt, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException rejected) {
+                done.complete(null);
+            }
+        }
+    }
+
+    private void record(File folder, Scan scan, long nanos) {
+        foldersDeleted.incrementAndGet();
+        bytesDeleted.addAndGet(scan.bytes());
+        deleteNanos.addAndGet(nanos);
+        deleteTime.record(nanos);
+        double megabytes = scan.bytes() / (1024.0 * 1024.0);
+        double seconds = Math.max(nanos, 1L) / 1_000_000_000.0;
+        plugin.getLogger().info(String.format("Deleted %s (%d files, %.1f MB) in %d ms, %.1f MB/s",
+                folder.getName(), scan.files().size(), megabytes, nanos / 1_000_000L, megabytes / seconds));
+    }
+
+    private record Scan(List<Path> files, List<Path> directories, long bytes) {
+    }
+}
@@ -5,29 +5,52 @@ import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.WorldCreator;
 import org.bukkit.WorldType;
-import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.generator.ChunkGenerator;
 import org.bukkit.scheduler.BukkitRunnable;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.UUID;
+import java.util.Random;
 
 public class WorldManager {
 
     private final BattleRoyalePlugin plugin;
+    private final TemplateCloner templateCloner;
+    private final WorldDeletionService deletionService;
+    // Names come off the plugin's seed so a fixed randomSeed also replays the world names
+    private final Random worldNames;
+
+    private final MetricsRegistry.Histogram netherCreateTime;
+
+    private long netherCreated;
+    private long netherSkipped;
+    private long totalNetherNanos;
 
     public WorldManager(BattleRoyalePlugin plugin) {
         this.plugin = plugin;
+        this.deletionService = new WorldDeletionService(plugin);
+        this.worldNames = plugin.createRandom();
+        this.templateCloner = new TemplateCloner(plugin, deletionService.getExecutor());
+        this.netherCreateTime = plugin.getMetrics().histogram("br_nether_create_seconds", "On-demand Nether creation (main thread)");
     }
 
     public World createGameWorld() {
-        String worldName = "battle_" + UUID.randomUUID().toString().substring(0, 8);
+        String worldName;
+        do {
+            // A folder from an earlier start with the same seed may still be waiting for the orphan sweep
+            worldName = String.format("battle_%08x", worldNames.nextInt());
+        } while (Bukkit.getWorld(worldName) != null || new File(Bukkit.getWorldContainer(), worldName).exists());
         WorldCreator creator = new WorldCreator(worldName);
         creator.environment(World.Environment.NORMAL);
         creator.type(WorldType.NORMAL);
         creator.generateStructures(false);
+        if (templateCloner.isEnabled() && templateCloner.isReady()) {
+            // Terrain comes from the cloned template; anything outside it stays empty instead of being generated
+            templateCloner.cloneInto(new File(Bukkit.getWorldContainer(), worldName));
+            creator.generator(new EmptyChunkGenerator());
+        } else if (templateCloner.isEnabled()) {
+            // Waiting for the snapshot would stall the tick for the whole copy, so this round gets generated terrain
+            plugin.getLogger().warning("Template snapshot is still being cut or failed, generating terrain for " + worldName);
+        }
         World world = creator.createWorld();
         if (world == null) {
             throw new IllegalStateException("Failed to create battle world");
@@ -35,73 +58,112 @@ public class WorldManager {
         world.setAutoSave(false);
         Location spawn = new Location(world, 0.5, world.getHighestBlockYAt(0, 0) + 2, 0.5);
         world.setSpawnLocation(spawn);
+        return world;
+    }
 
-        // Pre-load the Nether with same border rules
-        WorldCreator netherCreator = new WorldCreator(worldName + "_nether");
+    // The Nether is only created once a round actually needs it
+    public World getOrCreateNether(World world) {
+        World nether = Bukkit.getWorld(world.getName() + "_nether");
+        if (nether != null) {
+            return nether;
+        }
+
+        long start = System.nanoTime();
+        WorldCreator netherCreator = new WorldCreator(world.getName() + "_nether");
         netherCreator.environment(World.Environment.NETHER);
         netherCreator.generateStructures(false);
-        World nether = netherCreator.createWorld();
-        if (nether != null) {
-            nether.setAutoSave(false);
+        nether = netherCreator.createWorld();
+        if (nether == null) {
+            throw new IllegalStateException("Failed to create battle nether");
         }
+        nether.setAutoSave(false);
 
-        return world;
+        long nanos = System.nanoTime() - start;
+        netherCreateTime.record(nanos);
+        netherCreated++;
+        totalNetherNanos += nanos;
+        plugin.getLogger().info("Created " + nether.getName() + " on demand in " + (nanos / 1_000_000L) + "ms");
+        return nether;
     }
 
-    public void prepareWorld(World world, FileConfiguration config) {
-        double borderSize = config.getDouble("borderSize", 300.0);
-        double shrinkSpeed = config.getDouble("borderShrinkSpeed", 5.0); // blocks per minute
+    public void recordRoundWithoutNether() {
+        netherSkipped++;
+        plugin.getLogger().info("Round finished without a Nether; about " + getAverageNetherMillis()
+                + "ms of world creation saved (" + netherSkipped + " rounds so far)");
+    }
 
-        world.getWorldBorder().setCenter(0, 0);
-        world.getWorldBorder().setSize(borderSize);
-        world.getWorldBorder().setDamageAmount(1.5);
-        world.getWorldBorder().setWarningDistance(10);
+    public long getNetherCreated() {
+        return netherCreated;
+    }
 
-        double minSize = 20.0;
-        if (borderSize > minSize) {
-            double distance = borderSize - minSize;
-            double seconds = Math.max(30, (distance / Math.max(1.0, shrinkSpeed)) * 60.0);
-            world.getWorldBorder().setSize(minSize, (long) seconds);
+    public long getNetherSkipped() {
+        return netherSkipped;
+    }
 
-            World nether = Bukkit.getWorld(world.getName() + "_nether");
-            if (nether != null) {
-                nether.getWorldBorder().setCenter(0, 0);
-                nether.getWorldBorder().setSize(borderSize);
-                nether.getWorldBorder().setSize(minSize, (long) seconds);
-            }
-        }
+    public long getAverageNetherMillis() {
+        return netherCreated == 0 ? 0 : (totalNetherNanos / netherCreated) / 1_000_000L;
     }
 
     public void deleteWorldAsync(World world) {
         String worldName = world.getName();
+        if (!plugin.isEnabled()) {
+            // No scheduling while disabling; unload now and let the next startup sweep the folders
+            unload(worldName);
+            return;
+        }
         new BukkitRunnable() {
             @Override
             public void run() {
-                Bukkit.unloadWorld(world, false);
-                World nether = Bukkit.getWorld(worldName + "_nether");
-                if (nether != null) {
-                    Bukkit.unloadWorld(nether, false);
+                // A world that is still loaded (someone could not be moved out) keeps its files; the startup sweep takes them
+                if (!unload(worldName)) {
+                    plugin.getLogger().warning("Could not unload " + worldName + ", leaving its folders for the next startup sweep");
+                    return;
                 }
-
-                Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                    deleteWorldFolder(new File(Bukkit.getWorldContainer(), worldName));
-                    deleteWorldFolder(new File(Bukkit.getWorldContainer(), worldName + "_nether"));
-                });
+                deletionService.delete(new File(Bukkit.getWorldContainer(), worldName));
+                deletionService.delete(new File(Bukkit.getWorldContainer(), worldName + "_nether"));
             }
         }.runTask(plugin);
     }
 
-    private void deleteWorldFolder(File file) {
-        if (!file.exists()) {
-            return;
+    public void sweepOrphanedWorlds() {
+        deletionService.sweepOrphans();
+    }
+
+    public void prepareTemplate() {
+        templateCloner.prepare();
+    }
+
+    // The pool holds off while the template is being cut so it doesn't fill up with generated worlds
+    public boolean isTemplateCutting() {
+        return templateCloner.isCutting();
+    }
+
+    // Returns whether worlds cloned so far came from a template snapshot that no longer matches the settings
+    public boolean applySettings(BattleRoyaleConfig settings) {
+        return templateCloner.applySettings(settings);
+    }
+
+    public void shutdown() {
+        deletionService.shutdown();
+    }
+
+    public WorldDeletionService getDeletionService() {
+        return deletionService;
+    }
+
+    private boolean unload(String worldName) {
+        boolean unloaded = true;
+        World world = Bukkit.getWorld(worldName);
+        if (world != null) {
+            unloaded = Bukkit.unloadWorld(world, false);
         }
-        try {
-            Files.walk(file.toPath())
-                    .sorted((a, b) -> b.compareTo(a))
-                    .map(Path::toFile)
-                    .forEach(File::delete);
-        } catch (IOException e) {
-            plugin.getLogger().warning("Failed to delete world folder " + file.getName() + ": " + e.getMessage());
+        World nether = Bukkit.getWorld(worldName + "_nether");
+        if (nether != null) {
+            unloaded &= Bukkit.unloadWorld(nether, false);
         }
+        return unloaded;
+    }
+
+    private static class EmptyChunkGenerator extends ChunkGenerator {
     }
 }
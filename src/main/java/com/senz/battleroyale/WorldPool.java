@@ -0,0 +1,161 @@
+package com.senz.battleroyale;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitRunnable;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class WorldPool {
+
+    private static final int WARM_RADIUS_CHUNKS = 2;
+
+    private final BattleRoyalePlugin plugin;
+    private final WorldManager worldManager;
+    private final Deque<World> ready = new ArrayDeque<>();
+    private final MetricsRegistry.Histogram createTime;
+
+    private BukkitTask refillTask;
+    private int warming;
+    // Bumped by discardReady so worlds still warming from before are dropped instead of pooled
+    private int generation;
+
+    private long hits;
+    private long misses;
+    private long worldsCreated;
+    private long totalCreateNanos;
+    private long lastCreateNanos;
+
+    public WorldPool(BattleRoyalePlugin plugin, WorldManager worldManager) {
+        this.plugin = plugin;
+        this.worldManager = worldManager;
+        this.createTime = plugin.getMetrics().histogram("br_world_create_seconds", "Battle world creation (main thread)");
+    }
+
+    public void start() {
+        long interval = plugin.getSettings().worldPool().refillIntervalTicks();
+
+        refillTask = new BukkitRunnable() {
+            @Override
+            public void run() {
+                refillOne();
+            }
+        }.runTaskTimer(plugin, interval, interval);
+    }
+
+    public World take() {
+        World world;
+        while ((world = ready.pollFirst()) != null) {
+            if (Bukkit.getWorld(world.getName()) != null) {
+                hits++;
+                return world;
+            }
+        }
+        misses++;
+        plugin.getLogger().warning("World pool empty, creating battle world synchronously (hits=" + hits + ", misses=" + misses + ")");
+        return createTimed();
+    }
+
+    // Pooled worlds were built from the old template; rounds already holding a world keep it
+    public void discardReady() {
+        generation++;
+        if (!ready.isEmpty()) {
+            plugin.getLogger().info("Discarding " + ready.size() + " pooled worlds built from the previous template settings");
+        }
+        for (World world : ready) {
+            worldManager.deleteWorldAsync(world);
+        }
+        ready.clear();
+    }
+
+    public void shutdown() {
+        if (refillTask != null) {
+            refillTask.cancel();
+            refillTask = null;
+        }
+        for (World world : ready) {
+            worldManager.deleteWorldAsync(world);
+        }
+        ready.clear();
+    }
+
+    private void refillOne() {
+        BattleRoyaleConfig.Pool settings = plugin.getSettings().worldPool();
+        if (ready.size() + warming >= settings.size()) {
+            return;
+        }
+        // Creating a world stalls the tick, so only do it while some arena is about to need one and the server has headroom
+        ArenaManager arenaManager = plugin.getArenaManager();
+        if (arenaManager == null || !arenaManager.hasWaitingArena()) {
+            return;
+        }
+        if (Bukkit.getAverageTickTime() > settings.maxTickTimeMs() || worldManager.isTemplateCutting()) {
+            return;
+        }
+
+        World world = createTimed();
+        int createdIn = generation;
+        warming++;
+        warmSpawnChunks(world).whenComplete((ignored, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            warming--;
+            if (error != null) {
+                plugin.getLogger().warning("Failed to warm pooled world " + world.getName() + ": " + error.getMessage());
+            }
+            if (createdIn != generation) {
+                worldManager.deleteWorldAsync(world);
+                return;
+            }
+            ready.addLast(world);
+        }));
+    }
+
+    private World createTimed() {
+        long start = System.nanoTime();
+        World world = worldManager.createGameWorld();
+        lastCreateNanos = System.nanoTime() - start;
+        createTime.record(lastCreateNanos);
+        totalCreateNanos += lastCreateNanos;
+        worldsCreated++;
+        plugin.getLogger().info("Created battle world " + world.getName() + " in " + (lastCreateNanos / 1_000_000L)
+                + "ms (avg " + getAverageCreateMillis() + "ms)");
+        return world;
+    }
+
+    private CompletableFuture<Void> warmSpawnChunks(World world) {
+        int centerX = world.getSpawnLocation().getBlockX() >> 4;
+        int centerZ = world.getSpawnLocation().getBlockZ() >> 4;
+        List<CompletableFuture<Chunk>> loads = new ArrayList<>();
+        for (int x = -WARM_RADIUS_CHUNKS; x <= WARM_RADIUS_CHUNKS; x++) {
+            for (int z = -WARM_RADIUS_CHUNKS; z <= WARM_RADIUS_CHUNKS; z++) {
+                loads.add(world.getChunkAtAsync(centerX + x, centerZ + z));
+            }
+        }
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture[0]));
+    }
+
+    public int getReadyCount() {
+        return ready.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getLastCreateMillis() {
+        return lastCreateNanos / 1_000_000L;
+    }
+
+    public long getAverageCreateMillis() {
+        return worldsCreated == 0 ? 0 : (totalCreateNanos / worldsCreated) / 1_000_000L;
+    }
+}